@@ -7,7 +7,7 @@
 
 -- Projects table
 CREATE TABLE IF NOT EXISTS projects (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     code VARCHAR(40) NOT NULL UNIQUE,
     name VARCHAR(200) NOT NULL,
     description LONGTEXT,
@@ -29,7 +29,7 @@ CREATE TABLE IF NOT EXISTS projects (
 
 -- Project images table
 CREATE TABLE IF NOT EXISTS project_images (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     project_id BIGINT NOT NULL,
     s3_key TEXT NOT NULL,
     mime_type VARCHAR(64) NOT NULL,
@@ -38,16 +38,64 @@ CREATE TABLE IF NOT EXISTS project_images (
     size_bytes BIGINT,
     sort_order INT DEFAULT 0,
     hero BOOLEAN DEFAULT FALSE,
+    variant_status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    lqip TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     
     FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE,
     INDEX idx_project_images_project (project_id),
-    INDEX idx_project_images_sort (project_id, sort_order)
+    INDEX idx_project_images_sort (project_id, sort_order),
+    INDEX idx_project_images_variant_status (variant_status, created_at),
+    -- Prefix index for lookups by key (confirm and blob dedup); longer than any generated key
+    INDEX idx_project_images_s3_key (s3_key(120))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Id allocation for projects and project_images. Hibernate reserves 50 ids per
+-- round trip from these tables, which keeps inserts batchable (IDENTITY does not).
+CREATE TABLE IF NOT EXISTS projects_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO projects_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM projects_seq);
+
+CREATE TABLE IF NOT EXISTS project_images_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO project_images_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM project_images_seq);
+
+-- Content-addressed image blobs and how many images reference each
+CREATE TABLE IF NOT EXISTS media_blobs (
+    s3_key VARCHAR(100) PRIMARY KEY,
+    mime_type VARCHAR(100),
+    size_bytes BIGINT,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Resume position of the orphan reconciler in the bucket listing
+CREATE TABLE IF NOT EXISTS media_reconcile_checkpoints (
+    name VARCHAR(64) PRIMARY KEY,
+    cursor_key VARCHAR(1024),
+    pass_started_at TIMESTAMP(6) NULL,
+    updated_at TIMESTAMP(6) NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Storage operations pending after a committed change (transactional outbox)
+CREATE TABLE IF NOT EXISTS media_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    operation VARCHAR(32) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+
+    INDEX idx_media_outbox_due (next_attempt_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Enquiries table
 CREATE TABLE IF NOT EXISTS enquiries (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tracking_id VARCHAR(36),
     project_id BIGINT,
     name VARCHAR(120) NOT NULL,
     email VARCHAR(160) NOT NULL,
@@ -60,10 +108,13 @@ CREATE TABLE IF NOT EXISTS enquiries (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     
     FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE SET NULL,
-    INDEX idx_enquiries_project (project_id),
-    INDEX idx_enquiries_status (status),
+    -- Admin inbox filters, each also ordered for the (created_at DESC, id DESC) keyset
+    INDEX idx_enquiries_status_created (status, created_at, id),
+    INDEX idx_enquiries_assignee_created (assigned_to, created_at, id),
+    INDEX idx_enquiries_project_created (project_id, created_at, id),
     INDEX idx_enquiries_created_at (created_at),
-    INDEX idx_enquiries_email (email)
+    INDEX idx_enquiries_email (email),
+    UNIQUE INDEX uk_enquiries_tracking_id (tracking_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Services table
@@ -82,6 +133,27 @@ ALTER TABLE projects
 ADD CONSTRAINT fk_projects_hero_image 
 FOREIGN KEY (hero_image_id) REFERENCES project_images(id) ON DELETE SET NULL;
 
+-- Upgrading an existing database from AUTO_INCREMENT ids: seed the sequences past the
+-- current ids plus one allocation block, e.g.
+-- UPDATE projects_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM projects);
+-- UPDATE project_images_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM project_images);
+
+-- Upgrading an existing database (existing images are picked up by the variant sweep):
+-- ALTER TABLE project_images
+--     ADD COLUMN variant_status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+--     ADD COLUMN lqip TEXT,
+--     ADD INDEX idx_project_images_variant_status (variant_status, created_at);
+-- ALTER TABLE project_images ADD INDEX idx_project_images_s3_key (s3_key(120));
+-- ALTER TABLE enquiries
+--     ADD COLUMN tracking_id VARCHAR(36) AFTER id,
+--     ADD UNIQUE INDEX uk_enquiries_tracking_id (tracking_id);
+-- ALTER TABLE enquiries
+--     ADD INDEX idx_enquiries_status_created (status, created_at, id),
+--     ADD INDEX idx_enquiries_assignee_created (assigned_to, created_at, id),
+--     ADD INDEX idx_enquiries_project_created (project_id, created_at, id),
+--     DROP INDEX idx_enquiries_status,
+--     DROP INDEX idx_enquiries_project;
+
 -- Insert sample data for project status enum values
 -- Note: The actual enum values are handled by the application layer
 -- These are just for reference:
@@ -0,0 +1,68 @@
+package com.backend.jvconstructions.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency against synthetic catalogues of growing size.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvertedIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "villa", "tower", "residency", "heights", "garden", "lake", "view", "park", "premium",
+            "affordable", "apartment", "duplex", "penthouse", "township", "commercial", "plaza",
+            "meadows", "greens", "enclave", "harbour", "skyline", "court", "square", "avenue"
+    };
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nashik", "Nagpur", "Bengaluru", "Hyderabad"};
+
+    @Param({"1000", "10000", "100000"})
+    int corpusSize;
+
+    private InvertedIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new InvertedIndex();
+        for (long id = 1; id <= corpusSize; id++) {
+            index.put(id, List.of(
+                    new InvertedIndex.Field(words(random, 3) + " " + id, 3.0),
+                    new InvertedIndex.Field(CITIES[random.nextInt(CITIES.length)], 2.0),
+                    new InvertedIndex.Field(words(random, 40), 1.0)));
+        }
+    }
+
+    @Benchmark
+    public List<Long> exactTerms() {
+        return index.search("lake view pune");
+    }
+
+    @Benchmark
+    public List<Long> prefixTerm() {
+        return index.search("pent");
+    }
+
+    @Benchmark
+    public List<Long> misspelledTerm() {
+        return index.search("penthuose");
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.backend.jvconstructions.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of signing the media URLs for one listing page, with a cold signature cache
+ * (every key signed with RSA) and a warm one (same window, signatures reused).
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudFrontUrlSignerBenchmark {
+
+    @Param({"20", "50"})
+    int pageSize;
+
+    private KeyPair keyPair;
+    private CloudFrontUrlSigner warm;
+    private String[] keys;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        keys = new String[pageSize];
+        for (int i = 0; i < pageSize; i++) keys[i] = "projects/project-" + i + "/images/" + i + ".jpg";
+        warm = newSigner();
+        for (String key : keys) warm.sign(key);
+    }
+
+    @Benchmark
+    public void coldPage(Blackhole blackhole) {
+        CloudFrontUrlSigner signer = newSigner();
+        for (String key : keys) blackhole.consume(signer.sign(key));
+    }
+
+    @Benchmark
+    public void warmPage(Blackhole blackhole) {
+        for (String key : keys) blackhole.consume(warm.sign(key));
+    }
+
+    private CloudFrontUrlSigner newSigner() {
+        return new CloudFrontUrlSigner("cdn.example.net", "KBENCH", keyPair.getPrivate(),
+                Duration.ofHours(1), 10_000, Clock.systemUTC());
+    }
+}
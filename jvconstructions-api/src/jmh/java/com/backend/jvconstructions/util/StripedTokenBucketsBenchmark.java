@@ -0,0 +1,48 @@
+package com.backend.jvconstructions.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate limit check with 16 threads hitting the buckets at once, either spread
+ * over many client IPs or all on one (a single abusive client, or a route total).
+ * {@code stripes = 1} is the unstriped baseline. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class StripedTokenBucketsBenchmark {
+
+    private static final int CLIENTS = 50_000;
+
+    @Param({"1", "64"})
+    int stripes;
+
+    private StripedTokenBuckets buckets;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        buckets = new StripedTokenBuckets(stripes, 100_000, 100, 1_000_000);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return buckets.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)], System.nanoTime());
+    }
+
+    @Benchmark
+    public long oneClient() {
+        return buckets.tryAcquire(clients[0], System.nanoTime());
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.config.CacheConfig;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.util.ProjectCodes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ProjectCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Encoded detail responses are keyed by code and evicted precisely. List entries
+     * are keyed by filter and pageable, so any change can move a card between pages;
+     * they are dropped as a whole. Runs after {@link ProjectReadModel} has applied the
+     * change, so a concurrent miss cannot refill a cache from the old snapshot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        evictCodes(event.code() == null ? List.of() : List.of(event.code()));
+    }
+
+    /** An import is one change: its codes are evicted and the list cache cleared once. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    public void onProjectsImported(ProjectsImportedEvent event) {
+        evictCodes(event.projects().stream().map(ProjectsImportedEvent.Imported::code).toList());
+    }
+
+    private void evictCodes(List<String> codes) {
+        Cache responses = cacheManager.getCache(CacheConfig.PROJECT_DETAIL_RESPONSES);
+        if (responses != null) codes.forEach(code -> responses.evict(ProjectCodes.key(code)));
+        Cache list = cacheManager.getCache(CacheConfig.PROJECT_LIST);
+        if (list != null) list.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.util.ProjectCodes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Project code to id, so enquiry intake does not query projects per submission.
+ * Codes are keyed by {@link ProjectCodes#key}, matching the database. Unknown codes are
+ * not cached, so a project is found as soon as it exists on any instance; deleting one
+ * evicts it here, and callers evict ids that another instance deleted when the insert
+ * referencing them fails.
+ */
+@Component
+public class ProjectCodeCache {
+
+    private final ProjectRepository projectRepository;
+    private final Cache<String, Long> ids;
+
+    public ProjectCodeCache(ProjectRepository projectRepository,
+                            @Value("${cache.projects.codes.maximumSize:10000}") long maximumSize,
+                            @Value("${cache.projects.codes.ttlSeconds:600}") long ttlSeconds) {
+        this.projectRepository = projectRepository;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<Long> idOf(String code) {
+        // A null from the loader is not stored.
+        return Optional.ofNullable(ids.get(ProjectCodes.key(code), key -> projectRepository.findIdByCode(code).orElse(null)));
+    }
+
+    /** Drops a cached id found to be stale, typically from a foreign key violation. */
+    public void evictId(Long projectId) {
+        ids.asMap().values().removeIf(projectId::equals);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.code() != null && event.type() == ProjectChangedEvent.Type.DELETED) {
+            ids.invalidate(ProjectCodes.key(event.code()));
+        }
+    }
+}
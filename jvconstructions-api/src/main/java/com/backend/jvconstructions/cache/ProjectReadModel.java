@@ -0,0 +1,368 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.dto.CursorPage;
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.util.DtoMapper;
+import com.backend.jvconstructions.util.KeysetCursor;
+import com.backend.jvconstructions.util.MediaStorage;
+import com.backend.jvconstructions.util.ProjectCodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable in-memory copy of the project catalogue with pre-built card and detail DTOs.
+ * Readers grab the current {@link Snapshot} without locking; writers rebuild the
+ * changed projects and publish a new snapshot (copy-on-write). Until the initial load
+ * finishes {@link #snapshot()} returns null and callers go to the database.
+ */
+@Component
+public class ProjectReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectReadModel.class);
+
+    private final ProjectRepository projectRepository;
+    private final ProjectImageRepository projectImageRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate readTx;
+    private final boolean enabled;
+
+    private final Object writeLock = new Object();
+    private final Set<Long> pendingWhileWarming = new HashSet<>();
+    private boolean warming;
+    private volatile Snapshot snapshot;
+    private volatile long cdnUrlEpoch;
+
+    public ProjectReadModel(ProjectRepository projectRepository,
+                            ProjectImageRepository projectImageRepository,
+                            MediaStorage mediaStorage,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${projects.readModel.enabled:true}") boolean enabled) {
+        this.projectRepository = projectRepository;
+        this.projectImageRepository = projectImageRepository;
+        this.mediaStorage = mediaStorage;
+        this.enabled = enabled;
+        // Change events arrive after commit, while the old transaction is still bound.
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+    }
+
+    /** The current snapshot, or null while the model is not warm yet. */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (!enabled) return;
+        synchronized (writeLock) {
+            if (warming || snapshot != null) return;
+            warming = true;
+        }
+        Thread thread = new Thread(this::warmUp, "project-read-model-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Media URLs are baked into the DTOs; when signed URLs roll over to a new window the
+     * whole model is reloaded. The old snapshot keeps serving meanwhile, since its URLs
+     * remain valid for one more window.
+     */
+    @Scheduled(fixedDelayString = "${projects.readModel.mediaUrlCheckMs:60000}")
+    public void refreshMediaUrls() {
+        if (mediaStorage.cdnUrlEpoch() == cdnUrlEpoch) return;
+        synchronized (writeLock) {
+            if (warming || snapshot == null) return;
+            warming = true;
+        }
+        warmUp();
+    }
+
+    void warmUp() {
+        try {
+            long started = System.nanoTime();
+            cdnUrlEpoch = mediaStorage.cdnUrlEpoch();
+            Snapshot loaded = readTx.execute(status -> loadAll());
+            synchronized (writeLock) {
+                // Replay projects that changed while the bulk load was running.
+                Snapshot current = loaded;
+                if (!pendingWhileWarming.isEmpty()) {
+                    List<Long> pending = List.copyOf(pendingWhileWarming);
+                    current = current.with(pending, readTx.execute(status -> loadMany(pending)));
+                }
+                pendingWhileWarming.clear();
+                warming = false;
+                snapshot = current;
+            }
+            log.info("Project read model warm with {} projects in {} ms",
+                    loaded.byId.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingWhileWarming.clear();
+                warming = false;
+            }
+            log.error("Failed to load project read model, reads stay on the database", e);
+        }
+    }
+
+    /** Runs before the cache invalidator so caches are never refilled from a stale snapshot. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        apply(List.of(event.projectId()), event.type() == ProjectChangedEvent.Type.DELETED);
+    }
+
+    /** A whole import is loaded with one query per table and published as one new snapshot. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProjectsImported(ProjectsImportedEvent event) {
+        apply(event.projectIds(), false);
+    }
+
+    private void apply(List<Long> projectIds, boolean deleted) {
+        synchronized (writeLock) {
+            if (warming) pendingWhileWarming.addAll(projectIds);
+            if (snapshot == null) return;
+            try {
+                Map<Long, ProjectView> views = deleted ? Map.of() : readTx.execute(status -> loadMany(projectIds));
+                snapshot = snapshot.with(projectIds, views);
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh projects {} in read model, reloading", projectIds, e);
+                snapshot = null;
+            }
+        }
+        if (snapshot == null) startWarmUp();
+    }
+
+    private Snapshot loadAll() {
+        Map<Long, List<ProjectImage>> imagesByProject = new HashMap<>();
+        List<Project> projects = projectRepository.findAll();
+        for (ProjectImage image : projectImageRepository.findAll(Sort.by("sortOrder", "id"))) {
+            imagesByProject.computeIfAbsent(image.getProject().getId(), id -> new ArrayList<>()).add(image);
+        }
+        List<ProjectView> views = new ArrayList<>(projects.size());
+        for (Project p : projects) {
+            views.add(toView(p, imagesByProject.getOrDefault(p.getId(), List.of())));
+        }
+        return Snapshot.of(views);
+    }
+
+    /** Views of the projects that still exist; ids missing from the result were deleted. */
+    private Map<Long, ProjectView> loadMany(Collection<Long> projectIds) {
+        List<Project> projects = projectRepository.findAllById(projectIds);
+        if (projects.isEmpty()) return Map.of();
+        Map<Long, List<ProjectImage>> imagesByProject = new HashMap<>();
+        for (ProjectImage image : projectImageRepository.findByProjectIdInOrderBySortOrderAscIdAsc(projectIds)) {
+            imagesByProject.computeIfAbsent(image.getProject().getId(), id -> new ArrayList<>()).add(image);
+        }
+        Map<Long, ProjectView> views = new HashMap<>(projects.size() * 2);
+        for (Project p : projects) {
+            views.put(p.getId(), toView(p, imagesByProject.getOrDefault(p.getId(), List.of())));
+        }
+        return views;
+    }
+
+    private ProjectView toView(Project p, List<ProjectImage> images) {
+        return new ProjectView(
+                p.getId(),
+                p.getCode(),
+                p.getName(),
+                p.getCity(),
+                p.getProjectStatus(),
+                p.getCreatedAt() == null ? Instant.EPOCH : p.getCreatedAt(),
+                p.getUpdatedAt(),
+                DtoMapper.toCard(p, images, mediaStorage::toCdnUrl),
+                DtoMapper.toDetail(p, images, mediaStorage::toCdnUrl)
+        );
+    }
+
+    record ProjectView(
+            Long id,
+            String code,
+            String name,
+            String city,
+            ProjectStatus projectStatus,
+            Instant createdAt,
+            Instant updatedAt,
+            ProjectDTOs.ProjectCardDTO card,
+            ProjectDTOs.ProjectDetailDTO detail
+    ) {
+        boolean matches(ProjectStatus status, String city) {
+            return (status == null || status == projectStatus)
+                    && (city == null || city.equalsIgnoreCase(this.city));
+        }
+
+        /** True when this project sorts after the position in (createdAt DESC, id DESC) order. */
+        boolean olderThan(KeysetCursor position) {
+            int c = createdAt.compareTo(position.createdAt());
+            return c < 0 || (c == 0 && id < position.id());
+        }
+    }
+
+    public static final class Snapshot {
+
+        private static final Comparator<ProjectView> NEWEST_FIRST = Comparator
+                .comparing(ProjectView::createdAt, Comparator.reverseOrder())
+                .thenComparing(ProjectView::id, Comparator.reverseOrder());
+
+        private final Map<Long, ProjectView> byId;
+        private final Map<String, ProjectView> byCode;
+        private final List<ProjectView> newestFirst;
+
+        private Snapshot(Map<Long, ProjectView> byId) {
+            this.byId = byId;
+            Map<String, ProjectView> codes = new HashMap<>(byId.size() * 2);
+            for (ProjectView view : byId.values()) codes.put(ProjectCodes.key(view.code()), view);
+            this.byCode = codes;
+            List<ProjectView> ordered = new ArrayList<>(byId.values());
+            ordered.sort(NEWEST_FIRST);
+            this.newestFirst = List.copyOf(ordered);
+        }
+
+        static Snapshot of(Collection<ProjectView> views) {
+            Map<Long, ProjectView> byId = new HashMap<>(views.size() * 2);
+            for (ProjectView view : views) byId.put(view.id(), view);
+            return new Snapshot(byId);
+        }
+
+        /** Copy of this snapshot with the given projects replaced by {@code views}, or removed when absent from it. */
+        Snapshot with(Collection<Long> projectIds, Map<Long, ProjectView> views) {
+            Map<Long, ProjectView> copy = new HashMap<>(byId);
+            for (Long id : projectIds) copy.remove(id);
+            copy.putAll(views);
+            return new Snapshot(copy);
+        }
+
+        public Optional<ProjectDTOs.ProjectDetailDTO> detail(String code) {
+            ProjectView view = byCode.get(ProjectCodes.key(code));
+            return view == null ? Optional.empty() : Optional.of(view.detail());
+        }
+
+        public Optional<ProjectDTOs.ProjectCardDTO> cardByCode(String code) {
+            ProjectView view = byCode.get(ProjectCodes.key(code));
+            return view == null ? Optional.empty() : Optional.of(view.card());
+        }
+
+        public Optional<ProjectDTOs.ProjectCardDTO> card(Long projectId) {
+            ProjectView view = byId.get(projectId);
+            return view == null ? Optional.empty() : Optional.of(view.card());
+        }
+
+        /** Empty when the requested sort is not one the model knows how to apply. */
+        public Optional<Page<ProjectDTOs.ProjectCardDTO>> list(ProjectStatus status, String city, Pageable pageable) {
+            Comparator<ProjectView> order = comparator(pageable.getSort());
+            if (order == null) return Optional.empty();
+            List<ProjectView> matching = new ArrayList<>();
+            for (ProjectView view : newestFirst) {
+                if (view.matches(status, city)) matching.add(view);
+            }
+            matching.sort(order);
+            if (pageable.isUnpaged()) {
+                return Optional.of(new PageImpl<>(matching.stream().map(ProjectView::card).toList(), pageable, matching.size()));
+            }
+            int from = (int) Math.min(pageable.getOffset(), matching.size());
+            int to = Math.min(from + pageable.getPageSize(), matching.size());
+            List<ProjectDTOs.ProjectCardDTO> content = matching.subList(from, to).stream().map(ProjectView::card).toList();
+            return Optional.of(new PageImpl<>(content, pageable, matching.size()));
+        }
+
+        public CursorPage<ProjectDTOs.ProjectCardDTO> listByCursor(ProjectStatus status, String city, KeysetCursor position, int size) {
+            List<ProjectView> rows = new ArrayList<>(size + 1);
+            boolean hasNext;
+            boolean hasPrev;
+            if (position != null && position.backward()) {
+                // Walk towards newer projects, nearest first.
+                for (int i = firstOlderIndex(position) - 1; i >= 0 && rows.size() <= size; i--) {
+                    ProjectView view = newestFirst.get(i);
+                    if (view.matches(status, city) && !isAt(view, position)) rows.add(view);
+                }
+                hasPrev = rows.size() > size;
+                if (hasPrev) rows = rows.subList(0, size);
+                Collections.reverse(rows);
+                hasNext = true;
+            } else {
+                for (int i = position == null ? 0 : firstOlderIndex(position); i < newestFirst.size() && rows.size() <= size; i++) {
+                    ProjectView view = newestFirst.get(i);
+                    if (view.matches(status, city)) rows.add(view);
+                }
+                hasNext = rows.size() > size;
+                if (hasNext) rows = rows.subList(0, size);
+                hasPrev = position != null;
+            }
+            if (rows.isEmpty()) return new CursorPage<>(List.of(), null, null);
+
+            ProjectView first = rows.get(0);
+            ProjectView last = rows.get(rows.size() - 1);
+            return new CursorPage<>(
+                    rows.stream().map(ProjectView::card).toList(),
+                    hasNext ? KeysetCursor.after(last.createdAt(), last.id()).encode() : null,
+                    hasPrev ? KeysetCursor.before(first.createdAt(), first.id()).encode() : null
+            );
+        }
+
+        private static boolean isAt(ProjectView view, KeysetCursor position) {
+            return view.id().equals(position.id()) && view.createdAt().equals(position.createdAt());
+        }
+
+        /** Binary search for the first project strictly older than the position. */
+        private int firstOlderIndex(KeysetCursor position) {
+            int lo = 0;
+            int hi = newestFirst.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (newestFirst.get(mid).olderThan(position)) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
+        /** Mirrors MySQL ordering: NULLs first ascending, last descending; ties fall back to id. */
+        private static Comparator<ProjectView> comparator(Sort sort) {
+            Comparator<ProjectView> result = null;
+            for (Sort.Order order : sort) {
+                Comparator<ProjectView> c = switch (order.getProperty()) {
+                    case "id" -> Comparator.comparing(ProjectView::id, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+                    case "code" -> Comparator.comparing(ProjectView::code, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                    case "name" -> Comparator.comparing(ProjectView::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                    case "city" -> Comparator.comparing(ProjectView::city, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                    case "projectStatus" -> Comparator.comparing(
+                            (ProjectView v) -> v.projectStatus() == null ? null : v.projectStatus().name(),
+                            Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+                    case "createdAt" -> Comparator.comparing(ProjectView::createdAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()));
+                    case "updatedAt" -> Comparator.comparing(ProjectView::updatedAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()));
+                    default -> null;
+                };
+                if (c == null) return null;
+                if (order.isDescending()) c = c.reversed();
+                result = result == null ? c : result.thenComparing(c);
+            }
+            Comparator<ProjectView> byId = Comparator.comparing(ProjectView::id);
+            return result == null ? byId : result.thenComparing(byId);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.config.CacheConfig;
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.ProjectCodes;
+import com.backend.jvconstructions.util.SparseFields;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Project detail responses kept as already-encoded JSON plus a strong ETag,
+ * keyed by {@link ProjectCodes#key}. Entries are evicted by {@link ProjectCacheInvalidator}.
+ */
+@Component
+public class ProjectResponseCache {
+
+    public record Entry(byte[] body, String etag) {}
+
+    private final ProjectService projectService;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+
+    public ProjectResponseCache(ProjectService projectService, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.projectService = projectService;
+        this.objectMapper = objectMapper;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.PROJECT_DETAIL_RESPONSES));
+    }
+
+    public Entry get(String code) {
+        try {
+            return cache.get(ProjectCodes.key(code), () -> render(projectService.getByCode(code)));
+        } catch (Cache.ValueRetrievalException e) {
+            // Let NotFoundException and friends reach the exception handler unchanged.
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes a sparse fieldset without caching it; the combinations are too many to
+     * keep, but the ETag still lets clients revalidate.
+     */
+    public Entry get(String code, SparseFields fields) {
+        if (fields.isAll()) return get(code);
+        try {
+            return render(fields.apply(projectService.getByCode(code, fields), objectMapper));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Entry render(Object detail) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(detail);
+        return new Entry(body, etag(body));
+    }
+
+    /**
+     * Hash of the encoded body. It covers the project fields and the full image set
+     * (ids, order, hero flag, URLs), and unlike updated_at it still changes when
+     * two edits land within the same second.
+     */
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.backend.jvconstructions.config;
 
+import com.backend.jvconstructions.util.PartBufferPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+/** Not loaded under the {@code local-media} profile, which needs no AWS account. */
 @Configuration
+@Profile("!local-media")
 public class AwsS3Config {
 
     @Value("${media.s3.region}")
@@ -21,6 +26,15 @@ public class AwsS3Config {
     @Value("${media.s3.secretKey}")
     String secretKey;
 
+    @Value("${media.s3.upload.partSizeBytes:8388608}")
+    int uploadPartSizeBytes;
+
+    @Value("${media.s3.upload.maxBuffers:8}")
+    int uploadMaxBuffers;
+
+    @Value("${media.s3.upload.acquireTimeoutMs:30000}")
+    long uploadAcquireTimeoutMs;
+
     @Bean
     S3Client s3Client() {
         AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
@@ -38,4 +52,13 @@ public class AwsS3Config {
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .build();
     }
+
+    /** S3 rejects multipart parts under 5 MiB (except the last one). */
+    @Bean
+    PartBufferPool s3UploadBufferPool(MeterRegistry meterRegistry) {
+        if (uploadPartSizeBytes < 5 * 1024 * 1024) throw new IllegalStateException("media.s3.upload.partSizeBytes must be at least 5 MiB");
+        PartBufferPool pool = new PartBufferPool(uploadPartSizeBytes, uploadMaxBuffers, uploadAcquireTimeoutMs);
+        pool.bindTo(meterRegistry, "media.upload");
+        return pool;
+    }
 }
@@ -1,15 +1,62 @@
 package com.backend.jvconstructions.config;
 
+import com.backend.jvconstructions.cache.ProjectResponseCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
+@EnableCaching
 public class CacheConfig {
 
+    public static final String PROJECT_LIST = "projects:list";
+    public static final String PROJECT_DETAIL_RESPONSES = "projects:detail-responses";
+
+    @Value("${cache.projects.list.maximumSize:500}")
+    long listMaximumSize;
+
+    @Value("${cache.projects.list.ttlSeconds:120}")
+    long listTtlSeconds;
+
+    @Value("${cache.projects.detailResponses.maximumBytes:33554432}")
+    long detailResponsesMaximumBytes;
+
+    @Value("${cache.projects.detailResponses.ttlSeconds:600}")
+    long detailResponsesTtlSeconds;
+
+    /**
+     * Size-bounded Caffeine caches (W-TinyLFU eviction) with a TTL per cache.
+     * Stats are recorded so the actuator publishes hit/miss/eviction metrics.
+     * Unknown cache names are rejected rather than created unbounded.
+     */
     @Bean
     CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("projects:list", "projects:details");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(PROJECT_LIST, bounded(listMaximumSize, listTtlSeconds));
+        // Encoded JSON bodies vary a lot in size, so this one is bounded by bytes.
+        cacheManager.registerCustomCache(PROJECT_DETAIL_RESPONSES, Caffeine.newBuilder()
+                .maximumWeight(detailResponsesMaximumBytes)
+                .weigher((Object key, Object value) ->
+                        value instanceof ProjectResponseCache.Entry entry ? entry.body().length : 1)
+                .expireAfterWrite(Duration.ofSeconds(detailResponsesTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> bounded(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
     }
 }
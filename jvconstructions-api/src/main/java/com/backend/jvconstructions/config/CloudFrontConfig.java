@@ -0,0 +1,45 @@
+package com.backend.jvconstructions.config;
+
+import com.backend.jvconstructions.util.CloudFrontUrlSigner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Signed CDN URLs for the private bucket. Without {@code media.cloudfront.enabled}
+ * media URLs stay plain CDN links.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "media.cloudfront", name = "enabled", havingValue = "true")
+public class CloudFrontConfig {
+
+    @Value("${media.s3.cdnDomain}")
+    String cdnDomain;
+
+    @Value("${media.cloudfront.keyPairId}")
+    String keyPairId;
+
+    @Value("${media.cloudfront.privateKeyPath}")
+    String privateKeyPath;
+
+    @Value("${media.cloudfront.urlWindowSeconds:3600}")
+    long urlWindowSeconds;
+
+    @Value("${media.cloudfront.maxCachedUrls:100000}")
+    long maxCachedUrls;
+
+    @Bean
+    CloudFrontUrlSigner cloudFrontUrlSigner() throws IOException {
+        String pem = Files.readString(Path.of(privateKeyPath), StandardCharsets.US_ASCII);
+        return new CloudFrontUrlSigner(cdnDomain, keyPairId, CloudFrontUrlSigner.readPrivateKey(pem),
+                Duration.ofSeconds(urlWindowSeconds), maxCachedUrls, Clock.systemUTC());
+    }
+}
@@ -1,7 +1,13 @@
 package com.backend.jvconstructions.controller;
 
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.enquiry.EnquiryExporter;
+import com.backend.jvconstructions.enquiry.EnquiryWriteBehind;
 import com.backend.jvconstructions.enums.ProjectRole;
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.backend.jvconstructions.exception.NotFoundException;
 import com.backend.jvconstructions.service.EnquiryService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -10,10 +16,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/enquiries")
@@ -23,11 +41,18 @@ public class EnquiryController {
     private static final Logger log = LoggerFactory.getLogger(EnquiryController.class);
 
     private final EnquiryService enquiryService;
+    private final Optional<EnquiryWriteBehind> writeBehind;
+    private final EnquiryExporter enquiryExporter;
+    private final ProjectCodeCache projectCodeCache;
 
+    /** 202 with a tracking id when enquiries are written behind, otherwise 200 with the stored enquiry. */
     @PostMapping
-    public ResponseEntity<EnquiryDTOs.EnquiryDTO> createEnquiry(
+    public ResponseEntity<?> createEnquiry(
             @Valid @RequestBody EnquiryDTOs.CreateEnquiryRequest request,
             HttpServletRequest http) {
+        if (writeBehind.isPresent()) {
+            return ResponseEntity.accepted().body(writeBehind.get().accept(request));
+        }
         String ip = http.getRemoteAddr();
         String userAgent = http.getHeader("User-Agent");
         return ResponseEntity.ok(enquiryService.create(request, ip, userAgent));
@@ -41,6 +66,84 @@ public class EnquiryController {
         return ResponseEntity.ok(enquiryService.list(status, pageable));
     }
 
+    /**
+     * Admin inbox, newest first, keyset-paginated without counts. Selected over
+     * {@link #listEnquiries} by the presence of the {@code cursor} parameter (pass it empty
+     * for the first page).
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ResponseEntity<CursorPage<EnquiryDTOs.EnquiryDTO>> inbox(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) String projectCode,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        EnquiryDTOs.InboxFilter filter = new EnquiryDTOs.InboxFilter(status, assignedTo, projectCode, from, to);
+        return ResponseEntity.ok(enquiryService.inbox(filter, cursor, size));
+    }
+
+    /**
+     * Streams all enquiries matching the inbox filters as CSV or NDJSON, newest first.
+     * Filters are checked before the first byte is sent. The export runs on an async
+     * thread and holds it and a database connection until the download ends, so only a
+     * few run at once (429 beyond that) and each has its own, longer timeout.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) String projectCode,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            HttpServletRequest http) {
+        EnquiryExporter.Format exportFormat;
+        try {
+            exportFormat = EnquiryExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(String.format("Unsupported export format %s", format));
+        }
+        if (from != null && to != null && !from.isBefore(to)) throw new BadRequestException("from must be before to");
+        Long projectId = null;
+        if (projectCode != null && !projectCode.isBlank()) {
+            projectId = projectCodeCache.idOf(projectCode)
+                    .orElseThrow(() -> new NotFoundException(String.format("Project with code %s not found", projectCode)));
+        }
+        EnquiryDTOs.InboxFilter filter = new EnquiryDTOs.InboxFilter(
+                blankToNull(status), blankToNull(assignedTo), projectCode, from, to);
+        Long exportProjectId = projectId;
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                enquiryExporter.export(filter, exportProjectId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                enquiryExporter.export(filter, exportProjectId, exportFormat, out);
+            }
+        };
+        String extension = exportFormat == EnquiryExporter.Format.CSV ? "csv" : "ndjson";
+        String filename = "enquiries-" + LocalDate.now(ZoneOffset.UTC) + "." + extension + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == EnquiryExporter.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON;
+        ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+        enquiryExporter.reserve(WebAsyncUtils.getAsyncManager(http));
+        return response;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ResponseEntity<EnquiryDTOs.EnquiryDTO> updateEnquiry(
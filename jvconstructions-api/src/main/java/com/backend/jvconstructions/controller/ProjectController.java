@@ -1,15 +1,23 @@
 package com.backend.jvconstructions.controller;
 
+import com.backend.jvconstructions.cache.ProjectResponseCache;
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.ProjectDTOs;
 import com.backend.jvconstructions.enums.ProjectRole;
 import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.backend.jvconstructions.search.ProjectFacetCounter;
 import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.SparseFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -25,27 +33,107 @@ public class ProjectController {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
     private final ProjectService projectService;
+    private final ProjectResponseCache projectResponseCache;
+    private final ProjectFacetCounter projectFacetCounter;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Every read endpoint accepts {@code fields=a,b} to return only those properties
+     * of each card or detail; unknown names are rejected with 400.
+     */
     @GetMapping
-    public ResponseEntity<Page<ProjectDTOs.ProjectCardDTO>> list(
+    public ResponseEntity<Page<Object>> list(
             @RequestParam(required = false) ProjectStatus projectStatus,
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) String fields,
             Pageable pageable
             ) {
         log.info("Received request to get projects with status: {}, city: {}, pageable: {}", projectStatus, city, pageable);
         try {
+            SparseFields selected = SparseFields.parse(fields, ProjectDTOs.ProjectCardDTO.class);
             Page<ProjectDTOs.ProjectCardDTO> projects = projectService.list(projectStatus, city, pageable);
             log.info("Successfully retrieved {} projects", projects.getTotalElements());
-            return ResponseEntity.ok(projects);
+            return ResponseEntity.ok(projects.map(card -> selected.apply(card, objectMapper)));
         } catch (Exception e) {
             log.error("Error retrieving projects", e);
             throw e;
         }
     }
 
+    /**
+     * Keyset-paginated variant of {@link #list}, selected by the presence of the
+     * {@code cursor} parameter (pass it empty for the first page).
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<Object>> listByCursor(
+            @RequestParam(required = false) ProjectStatus projectStatus,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+            ) {
+        SparseFields selected = SparseFields.parse(fields, ProjectDTOs.ProjectCardDTO.class);
+        CursorPage<ProjectDTOs.ProjectCardDTO> page = projectService.listByCursor(projectStatus, city, cursor, size);
+        return ResponseEntity.ok(new CursorPage<>(
+                page.items().stream().map(card -> selected.apply(card, objectMapper)).toList(),
+                page.nextCursor(),
+                page.prevCursor()));
+    }
+
+    /**
+     * Resolves up to 100 codes in one go, in request order. {@code view=card}
+     * returns cards instead of full details; unknown codes are listed separately.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ProjectDTOs.ProjectBatchResponse<?>> getBatch(
+            @Valid @RequestBody ProjectDTOs.ProjectBatchRequest request,
+            @RequestParam(defaultValue = "detail") String view,
+            @RequestParam(required = false) String fields) {
+        return switch (view) {
+            case "detail" -> {
+                SparseFields selected = SparseFields.parse(fields, ProjectDTOs.ProjectDetailDTO.class);
+                yield ResponseEntity.ok(sparse(projectService.getDetailsByCodes(request.codes(), selected), selected));
+            }
+            case "card" -> ResponseEntity.ok(sparse(projectService.getCardsByCodes(request.codes()),
+                    SparseFields.parse(fields, ProjectDTOs.ProjectCardDTO.class)));
+            default -> throw new BadRequestException("view must be 'detail' or 'card'");
+        };
+    }
+
+    private ProjectDTOs.ProjectBatchResponse<?> sparse(ProjectDTOs.ProjectBatchResponse<?> response, SparseFields fields) {
+        if (fields.isAll()) return response;
+        return new ProjectDTOs.ProjectBatchResponse<>(
+                response.projects().stream().map(p -> fields.apply(p, objectMapper)).toList(),
+                response.missingCodes());
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProjectDTOs.FacetsDTO> facets() {
+        return ResponseEntity.ok(projectFacetCounter.facets());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<Object>> search(@RequestParam String q,
+                                               @RequestParam(required = false) String fields,
+                                               Pageable pageable) {
+        SparseFields selected = SparseFields.parse(fields, ProjectDTOs.ProjectCardDTO.class);
+        return ResponseEntity.ok(projectService.search(q, pageable).map(card -> selected.apply(card, objectMapper)));
+    }
+
+    /**
+     * Serves the pre-encoded detail body. Spring answers a matching If-None-Match
+     * with 304 from the ETag alone, so repeat visitors never reach the database.
+     * Sparse fieldsets are encoded per request and skip the body cache.
+     */
     @GetMapping("/{code}")
-    public ResponseEntity<ProjectDTOs.ProjectDetailDTO> getByCode(@PathVariable String code) {
-        return ResponseEntity.ok(projectService.getByCode(code));
+    public ResponseEntity<byte[]> getByCode(@PathVariable String code, @RequestParam(required = false) String fields) {
+        SparseFields selected = SparseFields.parse(fields, ProjectDTOs.ProjectDetailDTO.class);
+        ProjectResponseCache.Entry entry = projectResponseCache.get(code, selected);
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
     }
 
     @PostMapping
@@ -56,6 +144,15 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.create(request, token.getName()));
     }
 
+    /** Creates up to 500 projects in one transaction; fails without creating any if a code is taken. */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ResponseEntity<ProjectDTOs.ProjectImportResponse> importProjects(
+            @Valid @RequestBody ProjectDTOs.ProjectImportRequest request,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(projectService.importProjects(request, token.getName()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ResponseEntity<ProjectDTOs.ProjectDetailDTO> updateProject(
@@ -81,6 +178,15 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getPresignedUploadUrl(id, request, token.getName()));
     }
 
+    @PostMapping("/{id}/images/upload-urls")
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ResponseEntity<List<ProjectDTOs.PresignedUrlResponse>> uploadUrls(
+            @PathVariable Long id,
+            @Valid @RequestBody ProjectDTOs.PresignedUrlBatchRequest request,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(projectService.getPresignedUploadUrls(id, request, token.getName()));
+    }
+
     @PostMapping("/{id}/images/confirm")
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ResponseEntity<ProjectDTOs.ImageDTO> confirmImage(
@@ -90,6 +196,15 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.confirmImage(id, request, token.getName()));
     }
 
+    @PostMapping("/{id}/images/confirm-batch")
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ResponseEntity<List<ProjectDTOs.ImageDTO>> confirmImages(
+            @PathVariable Long id,
+            @Valid @RequestBody ProjectDTOs.ConfirmImagesRequest request,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(projectService.confirmImages(id, request, token.getName()));
+    }
+
     @DeleteMapping("/{projectId}/images/{imageId}")
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ResponseEntity<String> deleteImage(@PathVariable Long projectId, @PathVariable Long imageId, JwtAuthenticationToken token) {
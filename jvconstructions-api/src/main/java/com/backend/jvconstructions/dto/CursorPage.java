@@ -0,0 +1,13 @@
+package com.backend.jvconstructions.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Cursors are opaque to clients and
+ * null when there is nothing further in that direction; no total is computed.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        String prevCursor
+) {}
@@ -19,6 +19,7 @@ public class EnquiryDTOs {
 
     public record EnquiryDTO(
             Long id,
+            String trackingId,
             String projectCode,
             String name,
             String email,
@@ -29,6 +30,22 @@ public class EnquiryDTOs {
             Instant createdAt
     ) {}
 
+    /** Returned with 202 when submissions are written behind; the row appears shortly after. */
+    public record EnquiryAcceptedDTO(
+            String trackingId,
+            String status,
+            Instant receivedAt
+    ) {}
+
+    /** Admin inbox filters; null means "any". {@code from} is inclusive, {@code to} exclusive. */
+    public record InboxFilter(
+            String status,
+            String assignedTo,
+            String projectCode,
+            Instant from,
+            Instant to
+    ) {}
+
     public record UpdateEnquiryRequest(
             String status,
             String assignedTo
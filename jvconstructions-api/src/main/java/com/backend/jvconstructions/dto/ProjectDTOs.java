@@ -1,10 +1,13 @@
 package com.backend.jvconstructions.dto;
 
 import com.backend.jvconstructions.enums.ProjectStatus;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -50,10 +53,20 @@ public class ProjectDTOs {
                 String city,
                 ProjectStatus projectStatus,
                 String heroImageUrl,
+                ImageVariantsDTO heroImageVariants,
                 Instant updatedAt
         ) {
         }
 
+        /** Resized renditions of an image; null until they have been generated. */
+        public record ImageVariantsDTO(
+                String thumbUrl,
+                String cardUrl,
+                String fullUrl,
+                String lqip
+        ) {
+        }
+
         public record ImageDTO(
                 Long id,
                 String url,
@@ -61,7 +74,8 @@ public class ProjectDTOs {
                 Integer width,
                 Integer height,
                 Integer sortOrder,
-                boolean hero
+                boolean hero,
+                ImageVariantsDTO variants
         ) {
         }
 
@@ -78,6 +92,34 @@ public class ProjectDTOs {
         ) {
         }
 
+        public record ProjectImportRequest(
+                @NotEmpty @Size(max = 500) List<@Valid CreateProjectRequest> projects
+        ) {
+        }
+
+        public record ProjectImportResponse(
+                int created
+        ) {
+        }
+
+        public record ProjectBatchRequest(
+                @NotEmpty @Size(max = 100) List<@NotBlank String> codes
+        ) {
+        }
+
+        public record ProjectBatchResponse<T>(
+                List<T> projects,
+                List<String> missingCodes
+        ) {
+        }
+
+        public record FacetsDTO(
+                long total,
+                Map<ProjectStatus, Long> projectStatus,
+                Map<String, Long> city
+        ) {
+        }
+
         public record PresignedUrlRequest(
                 @NotBlank String mimeType,
                 @Positive long sizeBytes
@@ -93,6 +135,12 @@ public class ProjectDTOs {
         ) {
         }
 
+        /** Up to 100 presigned PUTs for one project in a single call. */
+        public record PresignedUrlBatchRequest(
+                @NotEmpty @Size(max = 100) List<@Valid PresignedUrlRequest> files
+        ) {
+        }
+
         public record ConfirmImageReq(
                 @NotBlank String s3Key,
                 @NotBlank String mimeType,
@@ -103,4 +151,10 @@ public class ProjectDTOs {
                 Integer sortOrder
         ) {
         }
+
+        /** Confirms uploads made through presigned URLs; all rows are inserted in one transaction. */
+        public record ConfirmImagesRequest(
+                @NotEmpty @Size(max = 100) List<@Valid ConfirmImageReq> images
+        ) {
+        }
 }
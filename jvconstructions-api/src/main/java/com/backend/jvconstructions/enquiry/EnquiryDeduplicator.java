@@ -0,0 +1,95 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.util.DuplicateWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Collapses repeated submissions of the same enquiry (double clicks, replayed forms)
+ * within {@code enquiries.dedup.windowSeconds} into the first one. Submissions count as
+ * the same when email, phone, project code and message match after normalization; the
+ * repeat gets the original's response and nothing is written. Only fingerprints are kept,
+ * in a {@link DuplicateWindow} per intake path.
+ */
+@Component
+public class EnquiryDeduplicator {
+
+    private final boolean enabled;
+    private final DuplicateWindow<Fingerprint, EnquiryDTOs.EnquiryDTO> created;
+    private final DuplicateWindow<Fingerprint, EnquiryDTOs.EnquiryAcceptedDTO> accepted;
+    private final Counter hits;
+    private final Counter misses;
+
+    public EnquiryDeduplicator(MeterRegistry meterRegistry,
+                               @Value("${enquiries.dedup.enabled:true}") boolean enabled,
+                               @Value("${enquiries.dedup.windowSeconds:600}") long windowSeconds,
+                               @Value("${enquiries.dedup.generations:10}") int generations,
+                               @Value("${enquiries.dedup.maxEntries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        Duration window = Duration.ofSeconds(windowSeconds);
+        this.created = new DuplicateWindow<>(window, generations, maxEntries, Clock.systemUTC());
+        this.accepted = new DuplicateWindow<>(window, generations, maxEntries, Clock.systemUTC());
+        this.hits = Counter.builder("enquiries.dedup")
+                .description("Enquiry submissions checked for duplicates")
+                .tag("result", "duplicate")
+                .register(meterRegistry);
+        this.misses = Counter.builder("enquiries.dedup")
+                .description("Enquiry submissions checked for duplicates")
+                .tag("result", "new")
+                .register(meterRegistry);
+        Gauge.builder("enquiries.dedup.entries", this, dedup -> dedup.created.size() + dedup.accepted.size())
+                .description("Enquiry fingerprints currently remembered")
+                .register(meterRegistry);
+    }
+
+    /** For the synchronous path: runs {@code create} unless the same enquiry was stored recently. */
+    public EnquiryDTOs.EnquiryDTO create(EnquiryDTOs.CreateEnquiryRequest req, Supplier<EnquiryDTOs.EnquiryDTO> create) {
+        return enabled ? count(created.get(fingerprint(req), create)) : create.get();
+    }
+
+    /** For write-behind: runs {@code accept} unless the same enquiry was accepted recently. */
+    public EnquiryDTOs.EnquiryAcceptedDTO accept(EnquiryDTOs.CreateEnquiryRequest req, Supplier<EnquiryDTOs.EnquiryAcceptedDTO> accept) {
+        return enabled ? count(accepted.get(fingerprint(req), accept)) : accept.get();
+    }
+
+    private <V> V count(DuplicateWindow.Result<V> result) {
+        (result.duplicate() ? hits : misses).increment();
+        return result.value();
+    }
+
+    static Fingerprint fingerprint(EnquiryDTOs.CreateEnquiryRequest req) {
+        String normalized = String.join("\0",
+                normalizeText(req.email()),
+                req.phone() == null ? "" : req.phone().replaceAll("[^0-9]", ""),
+                normalizeText(req.projectCode()),
+                normalizeText(req.message()));
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        ByteBuffer digest = ByteBuffer.wrap(sha256.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        return new Fingerprint(digest.getLong(), digest.getLong());
+    }
+
+    private static String normalizeText(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** First 128 bits of the SHA-256 of the normalized fields. */
+    record Fingerprint(long high, long low) {}
+}
@@ -0,0 +1,266 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes enquiries as CSV or NDJSON straight from a forward-only result set, one row at a
+ * time, so memory use does not depend on how many rows are exported. The project code
+ * comes from a join in the same query.
+ *
+ * <p>The default fetch size of {@link Integer#MIN_VALUE} puts MySQL Connector/J into
+ * row-by-row streaming; positive values only take effect with {@code useCursorFetch=true}
+ * on the connection URL and otherwise buffer the whole result. The connection stays
+ * busy for the whole export, as does the async thread writing it, so at most
+ * {@code enquiries.export.maxConcurrent} exports run at once.
+ */
+@Component
+public class EnquiryExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(EnquiryExporter.class);
+    private static final String[] CSV_HEADER = {
+            "id", "trackingId", "projectCode", "name", "email", "phone", "message", "status", "assignedTo", "createdAt"};
+    private static final int PHONE_COLUMN = 5;
+
+    public enum Format { CSV, NDJSON }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore slots;
+    private final long timeoutMs;
+
+    public EnquiryExporter(JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${enquiries.export.fetchSize:-2147483648}") int fetchSize,
+                           @Value("${enquiries.export.maxConcurrent:2}") int maxConcurrent,
+                           @Value("${enquiries.export.timeoutMs:1800000}") long timeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Takes an export slot for the async request about to start and gives it the export
+     * timeout instead of the application default. The slot is freed when the request
+     * completes, times out or fails. Call last, once nothing else can reject the request.
+     */
+    public void reserve(WebAsyncManager asyncManager) {
+        if (!slots.tryAcquire()) throw new TooManyRequestsException("Too many exports running, try again later.");
+        asyncManager.registerCallableInterceptor(ExportSlot.class.getName(), new ExportSlot());
+    }
+
+    /**
+     * Streams every enquiry matching the filter, newest first, to {@code out}. The project
+     * filter is an id here; callers resolve the code. Does not close {@code out}.
+     */
+    public long export(EnquiryDTOs.InboxFilter filter, Long projectId, Format format, OutputStream out) throws IOException {
+        Query query = query(filter, projectId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = sink(format, objectMapper, writer);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(query.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < query.args().size(); i++) ps.setObject(i + 1, query.args().get(i));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    sink.write(toDto(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the driver discards the rest of the result.
+            log.info("Enquiry export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        sink.finish();
+        writer.flush();
+        log.info("Exported {} enquiries as {}", rows[0], format);
+        return rows[0];
+    }
+
+    record Query(String sql, List<Object> args) {}
+
+    static Query query(EnquiryDTOs.InboxFilter filter, Long projectId) {
+        StringBuilder sql = new StringBuilder("""
+                select e.id, e.tracking_id, p.code, e.name, e.email, e.phone, e.message,
+                       e.status, e.assigned_to, e.created_at
+                from enquiries e
+                left join projects p on p.id = e.project_id
+                where 1 = 1""");
+        List<Object> args = new ArrayList<>();
+        // Only the filters in use go into the SQL, so MySQL can pick the matching index.
+        if (filter.status() != null) {
+            sql.append(" and e.status = ?");
+            args.add(filter.status());
+        }
+        if (filter.assignedTo() != null) {
+            sql.append(" and e.assigned_to = ?");
+            args.add(filter.assignedTo());
+        }
+        if (projectId != null) {
+            sql.append(" and e.project_id = ?");
+            args.add(projectId);
+        }
+        if (filter.from() != null) {
+            sql.append(" and e.created_at >= ?");
+            args.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" and e.created_at < ?");
+            args.add(Timestamp.from(filter.to()));
+        }
+        sql.append(" order by e.created_at desc, e.id desc");
+        return new Query(sql.toString(), args);
+    }
+
+    private static EnquiryDTOs.EnquiryDTO toDto(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(10);
+        return new EnquiryDTOs.EnquiryDTO(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getString(9),
+                createdAt == null ? null : createdAt.toInstant()
+        );
+    }
+
+    static RowSink sink(Format format, ObjectMapper objectMapper, Writer writer) throws IOException {
+        return format == Format.CSV ? new CsvSink(writer) : new NdjsonSink(objectMapper, writer);
+    }
+
+    interface RowSink {
+        void write(EnquiryDTOs.EnquiryDTO row) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+
+        CsvSink(Writer writer) throws IOException {
+            this.writer = writer;
+            writeLine(CSV_HEADER);
+        }
+
+        @Override
+        public void write(EnquiryDTOs.EnquiryDTO row) throws IOException {
+            Instant createdAt = row.createdAt();
+            writeLine(new String[]{
+                    String.valueOf(row.id()), row.trackingId(), row.projectCode(), row.name(), row.email(), row.phone(),
+                    row.message(), row.status(), row.assignedTo(), createdAt == null ? null : createdAt.toString()});
+        }
+
+        private void writeLine(String[] fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) writer.write(',');
+                // Phones are validated to digits, '+', '-' and spaces and must stay intact.
+                writer.write(csvField(fields[i], i != PHONE_COLUMN));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * RFC 4180 quoting. With {@code guardFormula}, values starting with a formula character
+     * get a leading quote mark, since these are public form inputs and the file is opened
+     * in spreadsheets.
+     */
+    static String csvField(String value, boolean guardFormula) {
+        if (value == null || value.isEmpty()) return "";
+        char first = value.charAt(0);
+        if (guardFormula && (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r')) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    private static final class NdjsonSink implements RowSink {
+        private final Writer writer;
+        private final SequenceWriter sequence;
+        private boolean empty = true;
+
+        NdjsonSink(ObjectMapper objectMapper, Writer writer) throws IOException {
+            this.writer = writer;
+            this.sequence = objectMapper.writerFor(EnquiryDTOs.EnquiryDTO.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(writer);
+        }
+
+        @Override
+        public void write(EnquiryDTOs.EnquiryDTO row) throws IOException {
+            sequence.write(row);
+            empty = false;
+        }
+
+        /** Terminates the last line too, as NDJSON readers expect. */
+        @Override
+        public void finish() throws IOException {
+            sequence.flush();
+            if (!empty) writer.write('\n');
+        }
+    }
+
+    /** Applies the export timeout before the async request starts and frees the slot once it ends. */
+    final class ExportSlot implements CallableProcessingInterceptor {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest) asyncRequest.setTimeout(timeoutMs);
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            if (released.compareAndSet(false, true)) slots.release();
+        }
+    }
+}
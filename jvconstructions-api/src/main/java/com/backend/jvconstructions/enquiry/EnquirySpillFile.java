@@ -0,0 +1,69 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only NDJSON log of accepted enquiries that may not be in the database yet.
+ * Replayed on startup and truncated whenever everything appended has been written.
+ * Callers serialize access; see {@link EnquiryWriteBehind}.
+ */
+class EnquirySpillFile implements AutoCloseable {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final FileChannel channel;
+
+    EnquirySpillFile(Path path, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /** Entries left over from a previous run; a torn last line from a crash is skipped. */
+    List<PendingEnquiry> readAll() throws IOException {
+        List<PendingEnquiry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            try {
+                entries.add(objectMapper.readValue(line, PendingEnquiry.class));
+            } catch (IOException e) {
+                // Partial write at the tail; everything before it is intact.
+            }
+        }
+        return entries;
+    }
+
+    void append(PendingEnquiry enquiry) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(enquiry);
+            ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+            while (line.hasRemaining()) channel.write(line);
+            if (fsync) channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to enquiry spill file " + path, e);
+        }
+    }
+
+    void truncate() throws IOException {
+        if (channel.size() > 0) channel.truncate(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
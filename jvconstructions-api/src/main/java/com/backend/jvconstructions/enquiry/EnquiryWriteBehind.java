@@ -0,0 +1,257 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.exception.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes public enquiry submissions off the request path. A submission is validated,
+ * given a tracking id and queued; a single writer thread inserts whatever has queued up
+ * as one JDBC batch, so under load many submissions share a round trip and a commit.
+ *
+ * <p>Every queued submission is also appended to {@code enquiries.writeBehind.spillFile}
+ * first and replayed on the next start, so a crash loses nothing that was acknowledged;
+ * startup fails without one. Inserts are keyed on the tracking id, which makes replays
+ * harmless. When the queue is full the submission is written on the caller's thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "enquiries.writeBehind", name = "enabled", havingValue = "true")
+public class EnquiryWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(EnquiryWriteBehind.class);
+    private static final String INSERT = "insert into enquiries "
+            + "(tracking_id, project_id, name, email, phone, message, status, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, 'NEW', ?, ?) on duplicate key update id = id";
+    private static final long POLL_MS = 500;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    private final ProjectCodeCache projectCodeCache;
+    private final EnquiryDeduplicator enquiryDeduplicator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final BlockingQueue<PendingEnquiry> queue;
+    private final EnquirySpillFile spillFile;
+    private final Object spillLock = new Object();
+    private final int batchSize;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long shutdownTimeoutMs;
+    private final Counter written;
+    private final Counter fallback;
+    private final Counter detached;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EnquiryWriteBehind(ProjectCodeCache projectCodeCache,
+                              EnquiryDeduplicator enquiryDeduplicator,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${enquiries.writeBehind.queueCapacity:10000}") int queueCapacity,
+                              @Value("${enquiries.writeBehind.batchSize:200}") int batchSize,
+                              @Value("${enquiries.writeBehind.initialBackoffMs:200}") long initialBackoffMs,
+                              @Value("${enquiries.writeBehind.maxBackoffMs:30000}") long maxBackoffMs,
+                              @Value("${enquiries.writeBehind.shutdownTimeoutMs:10000}") long shutdownTimeoutMs,
+                              @Value("${enquiries.writeBehind.spillFile:}") String spillFile,
+                              @Value("${enquiries.writeBehind.fsync:false}") boolean fsync) throws IOException {
+        this.projectCodeCache = projectCodeCache;
+        this.enquiryDeduplicator = enquiryDeduplicator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (spillFile.isBlank()) {
+            throw new IllegalStateException("enquiries.writeBehind.spillFile is required with write-behind enabled");
+        }
+        this.spillFile = new EnquirySpillFile(Path.of(spillFile), objectMapper, fsync);
+        this.batchSize = batchSize;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.written = Counter.builder("enquiries.ingest.written")
+                .description("Enquiries inserted by the write-behind writer")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("enquiries.ingest.fallback")
+                .description("Enquiries written on the request thread because the queue was full")
+                .register(meterRegistry);
+        this.detached = Counter.builder("enquiries.ingest.detached")
+                .description("Enquiries stored without their project because it was deleted after acceptance")
+                .register(meterRegistry);
+        Gauge.builder("enquiries.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Accepted enquiries not yet written")
+                .register(meterRegistry);
+
+        List<PendingEnquiry> leftover = this.spillFile.readAll();
+        this.writer = new Thread(() -> run(leftover), "enquiry-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Validates and queues a submission; the row is inserted shortly after this returns.
+     * A repeat of a recent submission gets the first one's tracking id and is not queued.
+     */
+    public EnquiryDTOs.EnquiryAcceptedDTO accept(EnquiryDTOs.CreateEnquiryRequest req) {
+        return enquiryDeduplicator.accept(req, () -> enqueue(req));
+    }
+
+    private EnquiryDTOs.EnquiryAcceptedDTO enqueue(EnquiryDTOs.CreateEnquiryRequest req) {
+        Long projectId = null;
+        if (req.projectCode() != null && !req.projectCode().isBlank()) {
+            projectId = projectCodeCache.idOf(req.projectCode())
+                    .orElseThrow(() -> new NotFoundException(String.format("Project with code %s not found", req.projectCode())));
+        }
+        PendingEnquiry enquiry = new PendingEnquiry(UUID.randomUUID().toString(), projectId,
+                req.name(), req.email(), req.phone(), req.message(), Instant.now());
+
+        boolean queued = false;
+        // Appends and truncation are serialized so the file never drops an entry the writer has not seen.
+        synchronized (spillLock) {
+            if (running) {
+                spillFile.append(enquiry);
+                queued = queue.offer(enquiry);
+            }
+        }
+        if (!queued) {
+            fallback.increment();
+            insertBatch(List.of(enquiry));
+        }
+        return new EnquiryDTOs.EnquiryAcceptedDTO(enquiry.trackingId(), queued ? "QUEUED" : "NEW", enquiry.receivedAt());
+    }
+
+    private void run(List<PendingEnquiry> leftover) {
+        if (!leftover.isEmpty()) {
+            log.info("Replaying {} enquiries from the spill file", leftover.size());
+            for (int from = 0; from < leftover.size(); from += batchSize) {
+                write(leftover.subList(from, Math.min(from + batchSize, leftover.size())));
+            }
+        }
+        List<PendingEnquiry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEnquiry first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    if (!write(batch)) return;
+                    batch.clear();
+                }
+                truncateIfIdle();
+            } catch (InterruptedException e) {
+                // Shutdown; the loop drains what is left before exiting.
+            }
+        }
+    }
+
+    /**
+     * Inserts one batch, retrying with backoff while the database is unavailable. Returns
+     * false only when shutting down with the batch still unwritten; the spill file keeps it.
+     */
+    private boolean write(List<PendingEnquiry> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insertBatch(batch);
+                written.increment(batch.size());
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                // Typically a project deleted since its code was resolved; isolate the bad rows.
+                insertOneByOne(batch);
+                return true;
+            } catch (DataAccessException e) {
+                if (!running && attempt >= SHUTDOWN_ATTEMPTS) {
+                    log.error("Giving up on {} enquiries at shutdown, they stay in the spill file", batch.size(), e);
+                    return false;
+                }
+                long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+                log.warn("Failed to write {} enquiries (attempt {}), retrying in {} ms", batch.size(), attempt, backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    // Shutdown; retry now and count the attempt.
+                }
+            }
+        }
+    }
+
+    private void insertOneByOne(List<PendingEnquiry> batch) {
+        for (PendingEnquiry enquiry : batch) {
+            try {
+                insertBatch(List.of(enquiry));
+            } catch (DataIntegrityViolationException e) {
+                if (enquiry.projectId() == null) {
+                    log.error("Dropping enquiry {} that cannot be stored", enquiry.trackingId(), e);
+                    continue;
+                }
+                // Already acknowledged, so keep the enquiry; stop handing out the stale id.
+                projectCodeCache.evictId(enquiry.projectId());
+                detached.increment();
+                log.warn("Project {} of enquiry {} no longer exists, storing it without one",
+                        enquiry.projectId(), enquiry.trackingId());
+                insertBatch(List.of(new PendingEnquiry(enquiry.trackingId(), null, enquiry.name(),
+                        enquiry.email(), enquiry.phone(), enquiry.message(), enquiry.receivedAt())));
+            }
+            written.increment();
+        }
+    }
+
+    private void insertBatch(List<PendingEnquiry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingEnquiry enquiry : batch) {
+            Timestamp receivedAt = Timestamp.from(enquiry.receivedAt());
+            rows.add(new Object[]{enquiry.trackingId(), enquiry.projectId(), enquiry.name(), enquiry.email(),
+                    enquiry.phone(), enquiry.message(), receivedAt, receivedAt});
+        }
+        tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows));
+    }
+
+    /** Everything appended so far has been written once the queue is empty between batches. */
+    private void truncateIfIdle() {
+        synchronized (spillLock) {
+            if (!queue.isEmpty()) return;
+            try {
+                spillFile.truncate();
+            } catch (IOException e) {
+                log.warn("Could not truncate the enquiry spill file", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException, IOException {
+        synchronized (spillLock) {
+            running = false;
+        }
+        writer.interrupt();
+        writer.join(shutdownTimeoutMs);
+        if (writer.isAlive()) log.warn("Enquiry writer still busy after {} ms, {} queued", shutdownTimeoutMs, queue.size());
+        synchronized (spillLock) {
+            spillFile.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.backend.jvconstructions.enquiry;
+
+import java.time.Instant;
+
+/** A validated submission waiting to be written; also the line format of the spill file. */
+public record PendingEnquiry(
+        String trackingId,
+        Long projectId,
+        String name,
+        String email,
+        String phone,
+        String message,
+        Instant receivedAt
+) {}
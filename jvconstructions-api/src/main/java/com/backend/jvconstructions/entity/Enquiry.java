@@ -9,9 +9,13 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "enquiries", indexes = {
-        @Index(name = "idx_enquiries_project", columnList = "project_id"),
-        @Index(name = "idx_enquiries_status", columnList = "status"),
-        @Index(name = "idx_enquiries_created_at", columnList = "createdAt")
+        // Inbox filters; each also serves the (createdAt DESC, id DESC) keyset order.
+        // InnoDB appends the id to idx_enquiries_created_at implicitly.
+        @Index(name = "idx_enquiries_status_created", columnList = "status, createdAt, id"),
+        @Index(name = "idx_enquiries_assignee_created", columnList = "assignedTo, createdAt, id"),
+        @Index(name = "idx_enquiries_project_created", columnList = "project_id, createdAt, id"),
+        @Index(name = "idx_enquiries_created_at", columnList = "createdAt"),
+        @Index(name = "uk_enquiries_tracking_id", columnList = "trackingId", unique = true)
 })
 @Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
 public class Enquiry {
@@ -19,6 +23,10 @@ public class Enquiry {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Handed to the submitter before the row exists; also makes write-behind inserts idempotent. */
+    @Column(length = 36)
+    private String trackingId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "projectId")
     private Project project;
@@ -0,0 +1,33 @@
+package com.backend.jvconstructions.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A content-addressed object ({@code blobs/sha256/<hash>.<ext>}, the extension
+ * sniffed from the bytes) and the number of images pointing at it. Rows that drop to zero references are removed, together with
+ * the object, by {@code MediaOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "media_blobs")
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
+public class MediaBlob {
+
+    @Id
+    @Column(name = "s3_key", length = 100)
+    private String s3Key;
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,46 @@
+package com.backend.jvconstructions.entity;
+
+import com.backend.jvconstructions.enums.MediaOperation;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * A storage operation recorded in the same transaction as the database change that
+ * requires it, applied later by {@code MediaOutboxDispatcher}. Rows are deleted once done.
+ */
+@Entity
+@Table(name = "media_outbox", indexes = {
+        @Index(name = "idx_media_outbox_due", columnList = "next_attempt_at, id")
+})
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
+public class MediaOutboxEntry {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private MediaOperation operation;
+
+    /** Object keys, one per line. */
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,27 @@
+package com.backend.jvconstructions.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** Where the orphan reconciler stopped in the bucket listing, so a pass survives restarts. */
+@Entity
+@Table(name = "media_reconcile_checkpoints")
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
+public class MediaReconcileCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /** Last key handled; null when the next run starts a new pass from the beginning. */
+    @Column(name = "cursor_key", length = 1024)
+    private String cursorKey;
+
+    @Column(name = "pass_started_at")
+    private Instant passStartedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -4,7 +4,9 @@ import com.backend.jvconstructions.enums.ProjectStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -16,7 +18,10 @@ import java.util.List;
 @Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
 public class Project {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /** Pooled sequence (a table on MySQL) rather than IDENTITY, so bulk imports can be JDBC-batched. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 40)
@@ -28,7 +33,9 @@ public class Project {
     @Lob
     private String description;
 
+    // VARCHAR as in schema.sql; Hibernate would otherwise map it to a MySQL ENUM.
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "project_status", nullable = false, length = 24)
     private ProjectStatus projectStatus;
 
@@ -1,19 +1,26 @@
 package com.backend.jvconstructions.entity;
 
+import com.backend.jvconstructions.enums.ImageVariantStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "project_images", indexes = {
         @Index(name = "idx_project_images_project", columnList = "project_id"),
-        @Index(name = "idx_project_images_sort", columnList = "project_id, sortOrder")
+        @Index(name = "idx_project_images_sort", columnList = "project_id, sortOrder"),
+        @Index(name = "idx_project_images_variant_status", columnList = "variant_status, created_at")
 })
 @Getter @Setter @AllArgsConstructor @NoArgsConstructor @Builder
 public class ProjectImage {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /** Pooled sequence (a table on MySQL) rather than IDENTITY, so inserts can be JDBC-batched. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_images_seq")
+    @SequenceGenerator(name = "project_images_seq", sequenceName = "project_images_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +46,17 @@ public class ProjectImage {
     @Builder.Default
     private Boolean hero = false;
 
+    /** Whether the resized renditions under {@code ImageVariant.key(s3Key)} exist yet. */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "variant_status", nullable = false, length = 16)
+    @Builder.Default
+    private ImageVariantStatus variantStatus = ImageVariantStatus.PENDING;
+
+    /** Tiny JPEG placeholder as a data URI, set together with the variants. */
+    @Column(name = "lqip", columnDefinition = "TEXT")
+    private String lqip;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private Instant createdAt = Instant.now();
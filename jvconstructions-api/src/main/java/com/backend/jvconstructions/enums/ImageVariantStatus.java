@@ -0,0 +1,7 @@
+package com.backend.jvconstructions.enums;
+
+public enum ImageVariantStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.backend.jvconstructions.enums;
+
+public enum MediaOperation {
+    DELETE_OBJECTS,
+    /** Deletes content-addressed blobs (and their variants) that still have no references. */
+    DELETE_BLOBS
+}
@@ -0,0 +1,8 @@
+package com.backend.jvconstructions.event;
+
+/**
+ * Published when an image row is created for an object already in storage.
+ * Listeners run after the surrounding transaction commits.
+ */
+public record ImageStoredEvent(Long imageId, String s3Key) {
+}
@@ -0,0 +1,18 @@
+package com.backend.jvconstructions.event;
+
+import com.backend.jvconstructions.enums.ProjectStatus;
+
+/**
+ * Published by the project service whenever a project or its images change.
+ * Listeners run after the surrounding transaction commits. Status and city are
+ * the values after the change (the last known values for a deletion).
+ */
+public record ProjectChangedEvent(Long projectId, String code, ProjectStatus projectStatus, String city, Type type) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        IMAGES_CHANGED
+    }
+}
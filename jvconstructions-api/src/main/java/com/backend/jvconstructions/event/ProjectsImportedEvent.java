@@ -0,0 +1,19 @@
+package com.backend.jvconstructions.event;
+
+import com.backend.jvconstructions.enums.ProjectStatus;
+
+import java.util.List;
+
+/**
+ * Published once for a bulk import instead of one {@link ProjectChangedEvent} per project,
+ * so listeners can load the new projects with one query and rebuild once. Listeners run
+ * after the import commits.
+ */
+public record ProjectsImportedEvent(List<Imported> projects) {
+
+    public record Imported(Long projectId, String code, ProjectStatus projectStatus, String city) {}
+
+    public List<Long> projectIds() {
+        return projects.stream().map(Imported::projectId).toList();
+    }
+}
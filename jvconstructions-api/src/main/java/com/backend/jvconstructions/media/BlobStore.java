@@ -0,0 +1,166 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Content-addressed, reference-counted storage for uploaded images: identical bytes get
+ * the same key, are transferred once and are deleted only when the last image using
+ * them goes.
+ *
+ * <p>Uploaders store the object first if no live reference exists, then {@link #acquire}
+ * a reference in their transaction. The dispatcher deletes an object only while holding
+ * the lock on its row with zero references, so a reference is either taken before the
+ * delete (and the delete is skipped) or after it. In the second case the uploader was the
+ * one to bring the count back to 1 and calls {@link #ensureStored}, after commit, to put
+ * the bytes back.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+    static final String PREFIX = "blobs/sha256/";
+    private static final List<String> EXTENSIONS = List.of("bin", "jpg", "png", "webp");
+    private static final int MAGIC_LENGTH = 12;
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final byte[] RIFF_MAGIC = {'R', 'I', 'F', 'F'};
+
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MediaStorage mediaStorage;
+    private final MediaOutbox mediaOutbox;
+
+    /**
+     * Every key a blob with this stem ({@code blobs/sha256/<hash>}) can have, in key order;
+     * older keys took the extension from the file name, normalized to one of these.
+     */
+    static List<String> keysForStem(String stem) {
+        return EXTENSIONS.stream().map(extension -> stem + "." + extension).toList();
+    }
+
+    public static boolean isBlobKey(String s3Key) {
+        return s3Key.startsWith(PREFIX);
+    }
+
+    /**
+     * Reads the source once, hashing as it goes. The extension comes from the leading bytes,
+     * not the file name, so identical bytes always get one key; variant keys drop the
+     * extension and would otherwise be shared by {@code <hash>.png} and {@code <hash>.jpg}.
+     */
+    public static String contentKey(InputStreamSource source) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        byte[] head = new byte[MAGIC_LENGTH];
+        int headLength = 0;
+        try (InputStream in = source.getInputStream()) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (headLength < MAGIC_LENGTH) {
+                    int copy = Math.min(n, MAGIC_LENGTH - headLength);
+                    System.arraycopy(buffer, 0, head, headLength, copy);
+                    headLength += copy;
+                }
+                sha256.update(buffer, 0, n);
+            }
+        }
+        return PREFIX + HexFormat.of().formatHex(sha256.digest()) + "." + extensionOf(head, headLength);
+    }
+
+    /** JPEG, PNG or WebP by signature; anything else is stored as {@code bin}. */
+    static String extensionOf(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) return "jpg";
+        if (length >= 8 && startsWith(head, PNG_MAGIC)) return "png";
+        if (length >= 12 && startsWith(head, RIFF_MAGIC)
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "webp";
+        return "bin";
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic) {
+        for (int i = 0; i < magic.length; i++) {
+            if (head[i] != magic[i]) return false;
+        }
+        return true;
+    }
+
+    /** Keys that currently have at least one reference, i.e. whose objects need not be uploaded again. */
+    public Set<String> findStored(Collection<String> s3Keys) {
+        if (s3Keys.isEmpty()) return Set.of();
+        return new HashSet<>(mediaBlobRepository.findReferencedKeys(s3Keys));
+    }
+
+    /**
+     * Adds one reference. Returns true when this is now the only one, in which case the
+     * caller must {@link #ensureStored} before relying on the object. Do that after commit:
+     * it is a network call, and the row stays locked until the transaction ends.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public boolean acquire(String s3Key, String mimeType, long sizeBytes) {
+        mediaBlobRepository.acquire(s3Key, mimeType, sizeBytes, Instant.now());
+        return mediaBlobRepository.findRefCount(s3Key).orElse(0) == 1;
+    }
+
+    /**
+     * Drops one reference per occurrence; objects left without references are queued for
+     * deletion. Rows are updated in key order, as uploads lock them, so the two cannot deadlock.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void release(List<String> s3Keys) {
+        if (s3Keys.isEmpty()) return;
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String s3Key : s3Keys) counts.merge(s3Key, 1, Integer::sum);
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (mediaBlobRepository.release(entry.getKey(), entry.getValue()) == 0) {
+                log.warn("Blob {} has fewer than {} references", entry.getKey(), entry.getValue());
+            }
+        }
+        mediaOutbox.deleteBlobs(mediaBlobRepository.findUnreferencedKeys(counts.keySet()));
+    }
+
+    /**
+     * Queues objects stored for a request that then failed. Each key gets a row (without a
+     * reference if it had none), claimed in key order, and the dispatcher deletes those that
+     * still have no reference when it runs; keys another upload has since taken are kept.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void discard(Collection<String> s3Keys) {
+        if (s3Keys.isEmpty()) return;
+        Set<String> byKey = new TreeSet<>(s3Keys);
+        Instant now = Instant.now();
+        for (String s3Key : byKey) mediaBlobRepository.claim(s3Key, now);
+        mediaOutbox.deleteBlobs(byKey);
+    }
+
+    /** Puts the object back if a concurrent last-reference delete removed it. */
+    public void ensureStored(String s3Key, InputStreamSource source, long length, String contentType) throws IOException {
+        if (mediaStorage.exists(s3Key)) return;
+        log.info("Blob {} was deleted while being re-uploaded, storing it again", s3Key);
+        try (InputStream in = source.getInputStream()) {
+            mediaStorage.uploadObject(s3Key, in, length, contentType);
+        }
+    }
+}
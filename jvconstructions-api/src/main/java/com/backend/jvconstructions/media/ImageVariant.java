@@ -0,0 +1,47 @@
+package com.backend.jvconstructions.media;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resized renditions generated for every project image, always JPEG, bounded by
+ * the longest edge. Declared largest first so each one can be scaled from the previous.
+ */
+public enum ImageVariant {
+    FULL(1600, 0.85f),
+    CARD(720, 0.80f),
+    THUMB(320, 0.75f);
+
+    private final int maxEdge;
+    private final float quality;
+
+    ImageVariant(int maxEdge, float quality) {
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+
+    public float quality() {
+        return quality;
+    }
+
+    /** The original key followed by the keys of all its variants. */
+    public static List<String> allKeys(String originalKey) {
+        List<String> keys = new ArrayList<>(values().length + 1);
+        keys.add(originalKey);
+        for (ImageVariant variant : values()) keys.add(variant.key(originalKey));
+        return keys;
+    }
+
+    /** Derived storage key, next to the original: {@code .../abc.png} becomes {@code .../abc.card.jpg}. */
+    public String key(String originalKey) {
+        int slash = originalKey.lastIndexOf('/');
+        int dot = originalKey.lastIndexOf('.');
+        String base = dot > slash ? originalKey.substring(0, dot) : originalKey;
+        return base + "." + name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+}
@@ -0,0 +1,171 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.enums.ImageVariantStatus;
+import com.backend.jvconstructions.event.ImageStoredEvent;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link ImageVariant}s off the request path. Stored images are queued after
+ * commit on a small bounded pool; anything that did not make it (queue full, storage
+ * error, restart) stays PENDING and is picked up by the periodic sweep. Images that
+ * cannot be decoded, or whose original is not in storage, are marked FAILED and are
+ * not swept again.
+ */
+@Component
+public class ImageVariantPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantPipeline.class);
+
+    private final MediaStorage mediaStorage;
+    private final ProjectImageRepository projectImageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Duration sweepGrace;
+
+    public ImageVariantPipeline(MediaStorage mediaStorage,
+                                ProjectImageRepository projectImageRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${media.variants.threads:2}") int threads,
+                                @Value("${media.variants.queueCapacity:100}") int queueCapacity,
+                                @Value("${media.variants.sweepGraceSeconds:120}") long sweepGraceSeconds) {
+        this.mediaStorage = mediaStorage;
+        this.projectImageRepository = projectImageRepository;
+        this.eventPublisher = eventPublisher;
+        // Runs on pool threads, or after commit while the caller's transaction is still bound.
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sweepGrace = Duration.ofSeconds(sweepGraceSeconds);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(ImageStoredEvent event) {
+        submit(event.imageId(), event.s3Key());
+    }
+
+    @Scheduled(fixedDelayString = "${media.variants.sweepIntervalMs:60000}")
+    public void sweep() {
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) return;
+        Instant before = Instant.now().minus(sweepGrace);
+        for (ProjectImageRepository.IdKeyRow row
+                : projectImageRepository.findWithVariantStatus(ImageVariantStatus.PENDING, before, Limit.of(free))) {
+            submit(row.getId(), row.getS3Key());
+        }
+    }
+
+    private void submit(Long imageId, String s3Key) {
+        if (!inFlight.add(imageId)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    process(imageId, s3Key);
+                } finally {
+                    inFlight.remove(imageId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imageId);
+            log.debug("Variant queue full, image {} left for the sweep", imageId);
+        }
+    }
+
+    void process(Long imageId, String s3Key) {
+        ImageVariantGenerator.Result result;
+        try (InputStream in = mediaStorage.openObject(s3Key)) {
+            result = ImageVariantGenerator.generate(in);
+        } catch (IIOException e) {
+            log.warn("Cannot decode image {} ({}): {}", imageId, s3Key, e.getMessage());
+            markFailed(imageId);
+            return;
+        } catch (IOException | RuntimeException e) {
+            if (isMissing(s3Key)) {
+                log.warn("Image {} has no stored original {}, giving up", imageId, s3Key);
+                markFailed(imageId);
+                return;
+            }
+            log.warn("Failed to read image {} ({}), will retry", imageId, s3Key, e);
+            return;
+        }
+
+        try {
+            for (Map.Entry<ImageVariant, byte[]> variant : result.variants().entrySet()) {
+                mediaStorage.uploadObject(variant.getKey().key(s3Key), variant.getValue(), "image/jpeg");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to store variants for image {}, will retry", imageId, e);
+            return;
+        }
+
+        Integer updated = tx.execute(status -> projectImageRepository.updateVariants(
+                imageId, result.width(), result.height(), result.lqip(), ImageVariantStatus.READY));
+        if (updated == null || updated == 0) {
+            // Deleted meanwhile; drop what was just written. Blob variants are shared and
+            // go with the blob's last reference instead.
+            if (!BlobStore.isBlobKey(s3Key)) mediaStorage.deleteObjects(ImageVariant.allKeys(s3Key));
+            return;
+        }
+        projectImageRepository.findOwner(imageId).ifPresent(owner -> eventPublisher.publishEvent(new ProjectChangedEvent(
+                owner.getId(), owner.getCode(), owner.getProjectStatus(), owner.getCity(),
+                ProjectChangedEvent.Type.IMAGES_CHANGED)));
+        log.info("Generated variants for image {} ({}x{})", imageId, result.width(), result.height());
+    }
+
+    private void markFailed(Long imageId) {
+        tx.executeWithoutResult(status ->
+                projectImageRepository.updateVariants(imageId, null, null, null, ImageVariantStatus.FAILED));
+    }
+
+    /** True only when storage answers that the object is not there; any other error is retried. */
+    private boolean isMissing(String s3Key) {
+        try {
+            return !mediaStorage.exists(s3Key);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
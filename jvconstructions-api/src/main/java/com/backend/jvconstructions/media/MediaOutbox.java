@@ -0,0 +1,54 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import com.backend.jvconstructions.enums.MediaOperation;
+import com.backend.jvconstructions.repository.MediaOutboxRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records storage side effects as part of the caller's transaction: they happen if and
+ * only if it commits, and never slow the request down. See {@link MediaOutboxDispatcher}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MediaOutbox {
+
+    /** Matches the S3 DeleteObjects limit, so one entry is one storage call. */
+    static final int MAX_KEYS_PER_ENTRY = 1000;
+
+    private final MediaOutboxRepository mediaOutboxRepository;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void deleteObjects(Collection<String> keys) {
+        enqueue(MediaOperation.DELETE_OBJECTS, keys);
+    }
+
+    /** See {@link BlobStore}; the dispatcher re-checks each blob's references before deleting. */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void deleteBlobs(Collection<String> s3Keys) {
+        enqueue(MediaOperation.DELETE_BLOBS, s3Keys);
+    }
+
+    private void enqueue(MediaOperation operation, Collection<String> keys) {
+        if (keys.isEmpty()) return;
+        List<String> all = new ArrayList<>(keys);
+        Instant now = Instant.now();
+        List<MediaOutboxEntry> entries = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_KEYS_PER_ENTRY) {
+            entries.add(MediaOutboxEntry.builder()
+                    .operation(operation)
+                    .payload(String.join("\n", all.subList(from, Math.min(from + MAX_KEYS_PER_ENTRY, all.size()))))
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build());
+        }
+        mediaOutboxRepository.saveAll(entries);
+    }
+}
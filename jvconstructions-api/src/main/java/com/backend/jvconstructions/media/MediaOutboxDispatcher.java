@@ -0,0 +1,175 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.entity.MediaBlob;
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaOutboxRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies {@link MediaOutbox} entries, each in its own short transaction. Every operation is
+ * idempotent (deleting a missing object succeeds), so an entry may safely run again after a
+ * crash. Failures are retried with exponential backoff, keeping only the keys that still failed.
+ */
+@Component
+public class MediaOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaOutboxDispatcher.class);
+
+    private final MediaOutboxRepository mediaOutboxRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate tx;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public MediaOutboxDispatcher(MediaOutboxRepository mediaOutboxRepository,
+                                 MediaBlobRepository mediaBlobRepository,
+                                 MediaStorage mediaStorage,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${media.outbox.initialBackoffMs:1000}") long initialBackoffMs,
+                                 @Value("${media.outbox.maxBackoffMs:600000}") long maxBackoffMs) {
+        this.mediaOutboxRepository = mediaOutboxRepository;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.mediaStorage = mediaStorage;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        Gauge.builder("media.outbox.depth", depth, AtomicLong::get)
+                .description("Media operations waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("media.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest media operation in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${media.outbox.pollIntervalMs:1000}")
+    public void dispatch() {
+        try {
+            // Keep draining while entries are due.
+            Boolean dispatched;
+            do {
+                dispatched = tx.execute(status -> dispatchOne());
+            } while (Boolean.TRUE.equals(dispatched));
+        } catch (RuntimeException e) {
+            log.error("Media outbox dispatch failed", e);
+        } finally {
+            updateMetrics();
+        }
+    }
+
+    /** Applies the oldest due entry; false when none is due. */
+    private boolean dispatchOne() {
+        Instant now = Instant.now();
+        List<MediaOutboxEntry> entries = mediaOutboxRepository.lockDue(now, 1);
+        if (entries.isEmpty()) return false;
+        MediaOutboxEntry entry = entries.get(0);
+        List<String> remaining = apply(entry);
+        if (remaining.isEmpty()) {
+            mediaOutboxRepository.delete(entry);
+            return true;
+        }
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setPayload(String.join("\n", remaining));
+        entry.setNextAttemptAt(now.plus(backoff(attempts)));
+        if (attempts % 10 == 0) {
+            log.error("Media outbox entry {} still failing after {} attempts: {}", entry.getId(), attempts, entry.getLastError());
+        }
+        return true;
+    }
+
+    private List<String> apply(MediaOutboxEntry entry) {
+        List<String> keys = Arrays.asList(entry.getPayload().split("\n"));
+        try {
+            return switch (entry.getOperation()) {
+                case DELETE_OBJECTS -> {
+                    List<String> failed = mediaStorage.deleteObjects(keys);
+                    if (!failed.isEmpty()) entry.setLastError(String.format("%d keys not deleted", failed.size()));
+                    yield failed;
+                }
+                case DELETE_BLOBS -> deleteUnreferencedBlobs(entry, keys);
+            };
+        } catch (RuntimeException e) {
+            log.warn("Media outbox entry {} failed", entry.getId(), e);
+            String message = String.valueOf(e.getMessage());
+            entry.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+            return keys;
+        }
+    }
+
+    /**
+     * The entry's blob rows are locked in key order and stay locked until this entry commits,
+     * so no upload can take a new reference between the check and the delete. Keys without a
+     * row have no reference either; the locking read also blocks inserting their rows until
+     * commit, after which an uploader finds itself the first reference and stores the bytes
+     * again. Objects of the unreferenced blobs and their variants go out in storage calls of
+     * up to {@link MediaOutbox#MAX_KEYS_PER_ENTRY} keys; a row is deleted once all its objects
+     * are gone.
+     */
+    private List<String> deleteUnreferencedBlobs(MediaOutboxEntry entry, List<String> s3Keys) {
+        Map<String, MediaBlob> unreferenced = new TreeMap<>();
+        for (String s3Key : s3Keys) unreferenced.put(s3Key, null);
+        for (MediaBlob blob : mediaBlobRepository.lockByKeys(s3Keys)) {
+            if (blob.getRefCount() == 0) unreferenced.put(blob.getS3Key(), blob);
+            else unreferenced.remove(blob.getS3Key());
+        }
+        if (unreferenced.isEmpty()) return List.of();
+
+        Map<String, String> blobOfObject = new HashMap<>();
+        for (String s3Key : unreferenced.keySet()) {
+            for (String objectKey : ImageVariant.allKeys(s3Key)) blobOfObject.put(objectKey, s3Key);
+        }
+        List<String> objectKeys = new ArrayList<>(blobOfObject.keySet());
+        Set<String> failed = new TreeSet<>();
+        for (int from = 0; from < objectKeys.size(); from += MediaOutbox.MAX_KEYS_PER_ENTRY) {
+            List<String> chunk = objectKeys.subList(from, Math.min(from + MediaOutbox.MAX_KEYS_PER_ENTRY, objectKeys.size()));
+            for (String objectKey : mediaStorage.deleteObjects(chunk)) failed.add(blobOfObject.get(objectKey));
+        }
+        unreferenced.keySet().removeAll(failed);
+        mediaBlobRepository.deleteAllInBatch(unreferenced.values().stream().filter(Objects::nonNull).toList());
+        if (!failed.isEmpty()) entry.setLastError(String.format("%d blobs not deleted", failed.size()));
+        return new ArrayList<>(failed);
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void updateMetrics() {
+        try {
+            depth.set(mediaOutboxRepository.count());
+            Instant oldest = mediaOutboxRepository.findOldestCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).getSeconds()));
+        } catch (RuntimeException e) {
+            log.debug("Could not refresh media outbox metrics", e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.entity.MediaReconcileCheckpoint;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaReconcileCheckpointRepository;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.util.BloomFilter;
+import com.backend.jvconstructions.util.MediaStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Finds stored objects that no image references any more (failed uploads, missed
+ * deletes) by walking the bucket listing a few pages per run. Listed keys are checked
+ * against a Bloom filter of every image key and its variants, built once per pass, so the
+ * common case costs no query at all. Keys the filter rules out are confirmed against the
+ * database one by one before they count as orphans, which also covers images added since
+ * the filter was built. Only objects older than the grace period are considered, so
+ * uploads still in flight are never touched, and an object written again after it was
+ * listed is skipped. Content-addressed blobs are deleted under their row locks, see
+ * {@link #deleteBlobObjects}.
+ *
+ * <p>The position in the listing is saved after every run and a pass resumes there after a
+ * restart. With {@code media.reconcile.delete} off, orphans are only logged and counted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "media.reconcile", name = "enabled", havingValue = "true")
+public class OrphanReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanReconciler.class);
+    private static final String CHECKPOINT = "media-orphans";
+    private static final List<String> MANAGED_PREFIXES = List.of("projects/", BlobStore.PREFIX);
+    private static final int KEY_BATCH = 5000;
+
+    private final MediaStorage mediaStorage;
+    private final ProjectImageRepository projectImageRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MediaReconcileCheckpointRepository checkpointRepository;
+    private final TransactionTemplate tx;
+    private final int pageSize;
+    private final int pagesPerRun;
+    private final Duration grace;
+    private final Duration filterMaxAge;
+    private final double falsePositiveRate;
+    private final boolean delete;
+    private final Counter scanned;
+    private final Counter found;
+    private final Counter deleted;
+
+    private BloomFilter filter;
+    private Instant filterBuiltAt;
+
+    public OrphanReconciler(MediaStorage mediaStorage,
+                            ProjectImageRepository projectImageRepository,
+                            MediaBlobRepository mediaBlobRepository,
+                            MediaReconcileCheckpointRepository checkpointRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${media.reconcile.pageSize:1000}") int pageSize,
+                            @Value("${media.reconcile.pagesPerRun:20}") int pagesPerRun,
+                            @Value("${media.reconcile.graceHours:24}") long graceHours,
+                            @Value("${media.reconcile.filterMaxAgeMinutes:60}") long filterMaxAgeMinutes,
+                            @Value("${media.reconcile.falsePositiveRate:0.01}") double falsePositiveRate,
+                            @Value("${media.reconcile.delete:false}") boolean delete) {
+        this.mediaStorage = mediaStorage;
+        this.projectImageRepository = projectImageRepository;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.pagesPerRun = pagesPerRun;
+        this.grace = Duration.ofHours(graceHours);
+        this.filterMaxAge = Duration.ofMinutes(filterMaxAgeMinutes);
+        this.falsePositiveRate = falsePositiveRate;
+        this.delete = delete;
+        this.scanned = Counter.builder("media.reconcile.scanned")
+                .description("Stored objects checked for references")
+                .register(meterRegistry);
+        this.found = Counter.builder("media.reconcile.orphans")
+                .description("Unreferenced objects older than the grace period")
+                .tag("action", "found")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("media.reconcile.orphans")
+                .description("Unreferenced objects older than the grace period")
+                .tag("action", "deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${media.reconcile.intervalMs:600000}",
+               initialDelayString = "${media.reconcile.initialDelayMs:120000}")
+    public void reconcile() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Orphan reconciliation failed, will resume from the last checkpoint", e);
+        }
+    }
+
+    void run() {
+        Instant now = Instant.now();
+        MediaReconcileCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> MediaReconcileCheckpoint.builder().name(CHECKPOINT).build());
+        String cursor = checkpoint.getCursorKey();
+        if (cursor == null) checkpoint.setPassStartedAt(now);
+        if (cursor == null || filter == null || filterBuiltAt.isBefore(now.minus(filterMaxAge))) {
+            buildFilter();
+        }
+
+        Instant cutoff = now.minus(grace);
+        for (int page = 0; page < pagesPerRun; page++) {
+            List<MediaStorage.StoredObject> objects = mediaStorage.listObjects(cursor, pageSize);
+            if (!objects.isEmpty()) {
+                handle(objects, cutoff);
+                cursor = objects.get(objects.size() - 1).key();
+            }
+            if (objects.size() < pageSize) {
+                log.info("Orphan reconciliation pass started at {} complete", checkpoint.getPassStartedAt());
+                cursor = null;
+                break;
+            }
+        }
+        checkpoint.setCursorKey(cursor);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private void buildFilter() {
+        long images = projectImageRepository.count();
+        BloomFilter built = BloomFilter.create(Math.max(1000, images * (ImageVariant.values().length + 1)), falsePositiveRate);
+        long afterId = 0;
+        List<ProjectImageRepository.IdKeyRow> rows;
+        do {
+            rows = projectImageRepository.findKeysAfter(afterId, Limit.of(KEY_BATCH));
+            for (ProjectImageRepository.IdKeyRow row : rows) {
+                for (String key : ImageVariant.allKeys(row.getS3Key())) built.add(key);
+                afterId = row.getId();
+            }
+        } while (rows.size() == KEY_BATCH);
+        filter = built;
+        filterBuiltAt = Instant.now();
+        log.info("Built orphan filter over {} images ({} KiB)", images, built.sizeInBytes() / 1024);
+    }
+
+    private void handle(List<MediaStorage.StoredObject> objects, Instant cutoff) {
+        scanned.increment(objects.size());
+        List<String> orphans = new ArrayList<>();
+        for (MediaStorage.StoredObject object : objects) {
+            if (!isManaged(object.key()) || object.lastModified().isAfter(cutoff)) continue;
+            if (filter.mightContain(object.key())) continue;
+            if (isReferenced(object.key())) continue;
+            orphans.add(object.key());
+        }
+        if (orphans.isEmpty()) return;
+
+        found.increment(orphans.size());
+        if (!delete) {
+            log.warn("Found {} orphaned objects (not deleted): {}", orphans.size(), orphans);
+            return;
+        }
+        List<String> objectKeys = new ArrayList<>();
+        Map<String, List<String>> blobKeys = new TreeMap<>();
+        for (String key : orphans) {
+            if (BlobStore.isBlobKey(key)) blobKeys.computeIfAbsent(stem(key), stem -> new ArrayList<>()).add(key);
+            else objectKeys.add(key);
+        }
+        int removed = deleteUnchanged(objectKeys, cutoff);
+        for (Map.Entry<String, List<String>> entry : blobKeys.entrySet()) {
+            removed += deleteBlobObjects(entry.getKey(), entry.getValue(), cutoff);
+        }
+        deleted.increment(removed);
+        log.info("Deleted {} of {} orphaned objects", removed, orphans.size());
+    }
+
+    /**
+     * An upload of the same bytes stores a blob again whenever no row references it, so
+     * a blob orphan can come back to life at any moment. It is deleted the way released
+     * blobs are: while holding the lock on every {@code media_blobs} row such an upload could
+     * take (creating the rows if needed) and only if none has a reference. An upload waiting
+     * on one of those locks then finds no live reference and stores its bytes again.
+     */
+    private int deleteBlobObjects(String stem, List<String> keys, Instant cutoff) {
+        List<String> blobKeys = BlobStore.keysForStem(stem);
+        Integer removed = tx.execute(status -> {
+            Instant now = Instant.now();
+            for (String blobKey : blobKeys) mediaBlobRepository.claim(blobKey, now);
+            if (!mediaBlobRepository.findReferencedKeys(blobKeys).isEmpty()) {
+                log.info("Orphan {} was referenced again, keeping it", stem);
+                // Drops the rows claimed above.
+                status.setRollbackOnly();
+                return 0;
+            }
+            int count = deleteUnchanged(keys, cutoff);
+            mediaBlobRepository.deleteUnreferenced(blobKeys);
+            return count;
+        });
+        return removed == null ? 0 : removed;
+    }
+
+    /** Deletes the keys not written again since they were listed, i.e. still older than the cutoff. */
+    private int deleteUnchanged(List<String> keys, Instant cutoff) {
+        List<String> unchanged = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Optional<Instant> lastModified = mediaStorage.lastModified(key);
+            if (lastModified.isPresent() && !lastModified.get().isAfter(cutoff)) unchanged.add(key);
+        }
+        if (unchanged.isEmpty()) return 0;
+        return unchanged.size() - mediaStorage.deleteObjects(unchanged).size();
+    }
+
+    private static boolean isManaged(String key) {
+        for (String prefix : MANAGED_PREFIXES) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Exact check for one key: whether any image or blob shares its stem, i.e. the key is
+     * an original ({@code abc.png}) or variant ({@code abc.card.jpg}) of a referenced image.
+     */
+    private boolean isReferenced(String key) {
+        String stemPrefix = stem(key) + ".";
+        return projectImageRepository.existsByS3KeyStartingWith(stemPrefix)
+                || mediaBlobRepository.existsByS3KeyStartingWith(stemPrefix);
+    }
+
+    static String stem(String key) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            String suffix = "." + variant.name().toLowerCase(Locale.ROOT) + ".jpg";
+            if (key.endsWith(suffix)) return key.substring(0, key.length() - suffix.length());
+        }
+        int slash = key.lastIndexOf('/');
+        int dot = key.lastIndexOf('.');
+        return dot > slash ? key.substring(0, dot) : key;
+    }
+}
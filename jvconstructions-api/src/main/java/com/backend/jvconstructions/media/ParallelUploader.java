@@ -0,0 +1,110 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.util.MediaStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads a batch of objects concurrently on a shared bounded pool, at most
+ * {@code perRequestConcurrency} at a time per batch so one large batch cannot take
+ * every thread. If any upload fails, the first failure is rethrown once all have finished;
+ * if the calling thread is interrupted, uploads not yet finished are cancelled instead.
+ * Objects already stored are left in place: keys are content-addressed (see
+ * {@link BlobStore}), so a retry of the batch reuses them instead of uploading again.
+ */
+@Component
+public class ParallelUploader {
+
+    public record Upload(String key, InputStreamSource source, long length, String contentType) {}
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelUploader.class);
+
+    private final MediaStorage mediaStorage;
+    private final ThreadPoolExecutor executor;
+    private final int perRequestConcurrency;
+
+    public ParallelUploader(MediaStorage mediaStorage,
+                            @Value("${media.batchUpload.threads:8}") int threads,
+                            @Value("${media.batchUpload.queueCapacity:64}") int queueCapacity,
+                            @Value("${media.batchUpload.perRequestConcurrency:4}") int perRequestConcurrency) {
+        this.mediaStorage = mediaStorage;
+        this.perRequestConcurrency = perRequestConcurrency;
+        AtomicInteger counter = new AtomicInteger();
+        // When the queue is full the request thread uploads itself, which throttles new batches.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void uploadAll(List<Upload> uploads) {
+        Semaphore permits = new Semaphore(perRequestConcurrency);
+        List<Future<?>> futures = new ArrayList<>(uploads.size());
+        for (Upload upload : uploads) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw cancel(futures, e);
+            }
+            futures.add(executor.submit(() -> {
+                try (InputStream in = upload.source().getInputStream()) {
+                    mediaStorage.uploadObject(upload.key(), in, upload.length(), upload.contentType());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw cancel(futures, e);
+            }
+        }
+        if (failure != null) {
+            log.warn("Batch upload of {} objects failed", uploads.size());
+            throw failure;
+        }
+    }
+
+    private static IllegalStateException cancel(List<Future<?>> futures, InterruptedException e) {
+        futures.forEach(future -> future.cancel(true));
+        return new IllegalStateException("Interrupted while uploading", e);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,147 @@
+package com.backend.jvconstructions.ratelimit;
+
+import com.backend.jvconstructions.exception.ApiError;
+import com.backend.jvconstructions.util.StripedTokenBuckets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the public routes configured under {@code ratelimit.routes}. Each route has
+ * a token bucket per client IP and optionally one shared by all clients; a request takes
+ * the route's cost from both and is answered with 429 and {@code Retry-After} when either
+ * is short. A client rejected by the shared bucket gets its tokens back. Requests outside
+ * the configured routes pass untouched.
+ *
+ * <p>The client is {@code getRemoteAddr()}; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so that is the real client address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String TOTAL_KEY = "";
+
+    private final List<Route> routes = new ArrayList<>();
+    private final ObjectMapper objectMapper;
+    private final long idleNanos;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleSeconds());
+        for (RateLimitProperties.Route config : properties.getRoutes()) {
+            if (config.getPerClient() == null) throw new IllegalArgumentException("Rate limit route " + config.getName() + " needs perClient");
+            if (config.getCost() <= 0 || config.getCost() > config.getPerClient().getCapacity()
+                    || (config.getTotal() != null && config.getCost() > config.getTotal().getCapacity())) {
+                throw new IllegalArgumentException("Rate limit route " + config.getName() + " costs more than a bucket holds");
+            }
+            Set<String> methods = new HashSet<>();
+            for (String method : config.getMethods()) methods.add(method.toUpperCase(Locale.ROOT));
+            StripedTokenBuckets perClient = new StripedTokenBuckets(properties.getStripes(), properties.getMaxClientsPerRoute(),
+                    config.getPerClient().getCapacity(), config.getPerClient().getRefillPerSecond());
+            StripedTokenBuckets total = config.getTotal() == null ? null : new StripedTokenBuckets(1, 1,
+                    config.getTotal().getCapacity(), config.getTotal().getRefillPerSecond());
+            routes.add(new Route(config.getName(), PathPatternParser.defaultInstance.parse(config.getPattern()), methods,
+                    config.getCost(), perClient, total, rejected(meterRegistry, config.getName(), "client"), rejected(meterRegistry, config.getName(), "total")));
+            Gauge.builder("ratelimit.clients", perClient, StripedTokenBuckets::size)
+                    .description("Client buckets currently tracked")
+                    .tag("route", config.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String route, String scope) {
+        return Counter.builder("ratelimit.rejected")
+                .description("Requests answered with 429")
+                .tag("route", route)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Preflights carry no payload and must not eat into the budget of the real request.
+        return "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long now = System.nanoTime();
+        String client = request.getRemoteAddr();
+        long wait = route.perClient().tryAcquire(client, route.cost(), now);
+        if (wait > 0) {
+            route.rejectedClient().increment();
+            reject(request, response, wait);
+            return;
+        }
+        if (route.total() != null && (wait = route.total().tryAcquire(TOTAL_KEY, route.cost(), now)) > 0) {
+            // Not the client's doing; its retry should not also wait for its own bucket.
+            route.perClient().refund(client, route.cost());
+            route.rejectedTotal().increment();
+            reject(request, response, wait);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : routes) {
+            if ((route.methods().isEmpty() || route.methods().contains(request.getMethod())) && route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(status.value(), status.getReasonPhrase(), "RATE_LIMITED",
+                String.format("Too many requests, retry in %d s", retryAfter), request.getRequestURI(), Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.sweepIntervalMs:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Route route : routes) evicted += route.perClient().evictIdle(now, idleNanos);
+        if (evicted > 0) log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    private record Route(String name, PathPattern pattern, Set<String> methods, double cost,
+                         StripedTokenBuckets perClient, StripedTokenBuckets total,
+                         Counter rejectedClient, Counter rejectedTotal) {}
+}
@@ -0,0 +1,44 @@
+package com.backend.jvconstructions.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Bound from {@code ratelimit.*}; see application.yml for the routes in use. */
+@Data
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    /** Lock stripes per route; rounded up to a power of two. */
+    private int stripes = 64;
+    /** Upper bound on tracked clients per route; least recently seen ones go first. */
+    private long maxClientsPerRoute = 100_000;
+    private long idleSeconds = 600;
+    private long sweepIntervalMs = 60_000;
+    /** Checked in order; the first route matching path and method applies. */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String name;
+        /** Spring path pattern, e.g. {@code /api/v1/projects/**}. */
+        private String pattern;
+        /** Empty matches every method. */
+        private List<String> methods = new ArrayList<>();
+        /** Bucket per client IP. */
+        private Limit perClient;
+        /** One bucket shared by all clients; optional. */
+        private Limit total;
+        /** Tokens one request takes from each bucket, for routes doing the work of several. */
+        private double cost = 1;
+    }
+
+    @Data
+    public static class Limit {
+        private double capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,39 @@
+package com.backend.jvconstructions.repository;
+
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keyset pages of the admin inbox, ordered by {@code (createdAt DESC, id DESC)}. Null
+ * filters are left out of the query rather than tested for null in it, so each filter
+ * combination gets its own plan and MySQL can seek on the {@code (column, created_at, id)}
+ * index of whichever filter is set.
+ */
+public interface EnquiryInboxRepository {
+
+    /** Enquiries after the given position, or from the newest one when it is null. */
+    List<InboxRow> findInboxOlderThan(String status, String assignedTo, Long projectId, Instant from, Instant to,
+                                      Instant createdAt, Long id, Limit limit);
+
+    /**
+     * Walking backwards: enquiries newer than the given position, nearest first
+     * ({@code createdAt ASC, id ASC}). Callers reverse the result.
+     */
+    List<InboxRow> findInboxNewerThan(String status, String assignedTo, Long projectId, Instant from, Instant to,
+                                      Instant createdAt, Long id, Limit limit);
+
+    record InboxRow(
+            Long id,
+            String trackingId,
+            String projectCode,
+            String name,
+            String email,
+            String phone,
+            String message,
+            String status,
+            String assignedTo,
+            Instant createdAt
+    ) {}
+}
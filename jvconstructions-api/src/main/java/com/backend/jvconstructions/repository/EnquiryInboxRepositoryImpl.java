@@ -0,0 +1,94 @@
+package com.backend.jvconstructions.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class EnquiryInboxRepositoryImpl implements EnquiryInboxRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InboxRow> findInboxOlderThan(String status, String assignedTo, Long projectId, Instant from, Instant to,
+                                             Instant createdAt, Long id, Limit limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder jpql = filtered(status, assignedTo, projectId, from, to, params);
+        if (createdAt != null) {
+            jpql.append(" and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))");
+            params.put("createdAt", createdAt);
+            params.put("id", id);
+        }
+        jpql.append(" order by e.createdAt desc, e.id desc");
+        return run(jpql, params, limit);
+    }
+
+    @Override
+    public List<InboxRow> findInboxNewerThan(String status, String assignedTo, Long projectId, Instant from, Instant to,
+                                             Instant createdAt, Long id, Limit limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder jpql = filtered(status, assignedTo, projectId, from, to, params);
+        jpql.append(" and (e.createdAt > :createdAt or (e.createdAt = :createdAt and e.id > :id))");
+        params.put("createdAt", createdAt);
+        params.put("id", id);
+        jpql.append(" order by e.createdAt asc, e.id asc");
+        return run(jpql, params, limit);
+    }
+
+    private static StringBuilder filtered(String status, String assignedTo, Long projectId, Instant from, Instant to,
+                                          Map<String, Object> params) {
+        StringBuilder jpql = new StringBuilder("""
+                select e.id, e.trackingId, p.code, e.name, e.email, e.phone, e.message,
+                       e.status, e.assignedTo, e.createdAt
+                from Enquiry e
+                left join e.project p
+                where 1 = 1""");
+        if (status != null) {
+            jpql.append(" and e.status = :status");
+            params.put("status", status);
+        }
+        if (assignedTo != null) {
+            jpql.append(" and e.assignedTo = :assignedTo");
+            params.put("assignedTo", assignedTo);
+        }
+        if (projectId != null) {
+            jpql.append(" and e.project.id = :projectId");
+            params.put("projectId", projectId);
+        }
+        if (from != null) {
+            jpql.append(" and e.createdAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and e.createdAt < :to");
+            params.put("to", to);
+        }
+        return jpql;
+    }
+
+    private List<InboxRow> run(StringBuilder jpql, Map<String, Object> params, Limit limit) {
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        if (limit.isLimited()) query.setMaxResults(limit.max());
+        return query.getResultList().stream()
+                .map(row -> new InboxRow(
+                        row.get(0, Long.class),
+                        row.get(1, String.class),
+                        row.get(2, String.class),
+                        row.get(3, String.class),
+                        row.get(4, String.class),
+                        row.get(5, String.class),
+                        row.get(6, String.class),
+                        row.get(7, String.class),
+                        row.get(8, String.class),
+                        row.get(9, Instant.class)))
+                .toList();
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
+public interface EnquiryRepository extends JpaRepository<Enquiry, Long>, EnquiryInboxRepository {
 
     Page<Enquiry> findByStatus(String status, Pageable pageable);
 }
@@ -0,0 +1,64 @@
+package com.backend.jvconstructions.repository;
+
+import com.backend.jvconstructions.entity.MediaBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    /** Adds a reference, creating the row on first use; atomic under concurrent uploads of the same bytes. */
+    @Modifying
+    @Query(value = """
+            insert into media_blobs (s3_key, mime_type, size_bytes, ref_count, created_at)
+            values (:s3Key, :mimeType, :sizeBytes, 1, :now)
+            on duplicate key update ref_count = ref_count + 1
+            """, nativeQuery = true)
+    int acquire(@Param("s3Key") String s3Key,
+                @Param("mimeType") String mimeType,
+                @Param("sizeBytes") long sizeBytes,
+                @Param("now") Instant now);
+
+    /** Locks the row for {@code s3Key}, first creating it without references if there is none. */
+    @Modifying
+    @Query(value = """
+            insert into media_blobs (s3_key, ref_count, created_at)
+            values (:s3Key, 0, :now)
+            on duplicate key update ref_count = ref_count
+            """, nativeQuery = true)
+    int claim(@Param("s3Key") String s3Key, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from MediaBlob b where b.s3Key in :s3Keys and b.refCount = 0")
+    int deleteUnreferenced(@Param("s3Keys") Collection<String> s3Keys);
+
+    @Modifying
+    @Query("update MediaBlob b set b.refCount = b.refCount - :refs where b.s3Key = :s3Key and b.refCount >= :refs")
+    int release(@Param("s3Key") String s3Key, @Param("refs") int refs);
+
+    @Query("select b.refCount from MediaBlob b where b.s3Key = :s3Key")
+    Optional<Integer> findRefCount(@Param("s3Key") String s3Key);
+
+    @Query("select b.s3Key from MediaBlob b where b.s3Key in :s3Keys and b.refCount > 0")
+    List<String> findReferencedKeys(@Param("s3Keys") Collection<String> s3Keys);
+
+    @Query("select b.s3Key from MediaBlob b where b.s3Key in :s3Keys and b.refCount = 0")
+    List<String> findUnreferencedKeys(@Param("s3Keys") Collection<String> s3Keys);
+
+    boolean existsByS3KeyStartingWith(String prefix);
+
+    /** Locks the existing rows in key order, so concurrent callers over overlapping keys cannot deadlock. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from MediaBlob b where b.s3Key in :s3Keys order by b.s3Key")
+    List<MediaBlob> lockByKeys(@Param("s3Keys") Collection<String> s3Keys);
+}
@@ -0,0 +1,30 @@
+package com.backend.jvconstructions.repository;
+
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MediaOutboxRepository extends JpaRepository<MediaOutboxEntry, Long> {
+
+    /**
+     * Due entries, locked for the current transaction. SKIP LOCKED lets several
+     * instances dispatch side by side without picking the same rows.
+     */
+    @Query(value = """
+            select * from media_outbox
+            where next_attempt_at <= :now
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<MediaOutboxEntry> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("select min(e.createdAt) from MediaOutboxEntry e")
+    Instant findOldestCreatedAt();
+}
@@ -0,0 +1,9 @@
+package com.backend.jvconstructions.repository;
+
+import com.backend.jvconstructions.entity.MediaReconcileCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaReconcileCheckpointRepository extends JpaRepository<MediaReconcileCheckpoint, String> {
+}
@@ -1,13 +1,121 @@
 package com.backend.jvconstructions.repository;
 
 import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ImageVariantStatus;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectImageRepository extends JpaRepository<ProjectImage, Long> {
 
     List<ProjectImage> findByProjectIdOrderBySortOrderAscIdAsc(Long projectId);
+    List<ProjectImage> findByProjectIdInOrderBySortOrderAscIdAsc(Collection<Long> projectIds);
+
+    /**
+     * First image (by sortOrder, id) of each given project, one row per project.
+     * Mirrors the ordering of {@code Project.images}.
+     */
+    @Query("""
+            select i.project.id as projectId, i.s3Key as s3Key,
+                   i.variantStatus as variantStatus, i.lqip as lqip
+            from ProjectImage i
+            where i.project.id in :projectIds
+              and not exists (
+                  select 1 from ProjectImage o
+                  where o.project = i.project
+                    and (coalesce(o.sortOrder, 0) < coalesce(i.sortOrder, 0)
+                         or (coalesce(o.sortOrder, 0) = coalesce(i.sortOrder, 0) and o.id < i.id)))
+            """)
+    List<ImageKeyRow> findFirstImageKeys(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query("select i.s3Key from ProjectImage i where i.s3Key in :s3Keys")
+    List<String> findExistingS3Keys(@Param("s3Keys") Collection<String> s3Keys);
+
+    /** Finished variants of images stored under the given keys, reused by deduplicated uploads. */
+    @Query("""
+            select i.s3Key as s3Key, i.width as width, i.height as height, i.lqip as lqip
+            from ProjectImage i
+            where i.s3Key in :s3Keys and i.variantStatus = :status
+            """)
+    List<VariantSourceRow> findVariantSources(@Param("s3Keys") Collection<String> s3Keys,
+                                              @Param("status") ImageVariantStatus status);
+
+    /** Keyset walk over all image keys, in id order. */
+    @Query("select i.id as id, i.s3Key as s3Key from ProjectImage i where i.id > :afterId order by i.id")
+    List<IdKeyRow> findKeysAfter(@Param("afterId") Long afterId, Limit limit);
+
+    boolean existsByS3KeyStartingWith(String prefix);
+
+    @Query("select i.s3Key from ProjectImage i where i.project.id = :projectId")
+    List<String> findS3KeysByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ProjectImage i where i.project.id = :projectId")
+    int deleteAllOfProject(@Param("projectId") Long projectId);
+
+    /** Images still waiting for variants, oldest first; served by {@code idx_project_images_variant_status}. */
+    @Query("""
+            select i.id as id, i.s3Key as s3Key
+            from ProjectImage i
+            where i.variantStatus = :status and i.createdAt < :before
+            order by i.createdAt asc
+            """)
+    List<IdKeyRow> findWithVariantStatus(@Param("status") ImageVariantStatus status,
+                                                @Param("before") Instant before,
+                                                Limit limit);
+
+    @Modifying
+    @Query("""
+            update ProjectImage i
+            set i.width = :width, i.height = :height, i.lqip = :lqip, i.variantStatus = :status
+            where i.id = :id
+            """)
+    int updateVariants(@Param("id") Long id,
+                       @Param("width") Integer width,
+                       @Param("height") Integer height,
+                       @Param("lqip") String lqip,
+                       @Param("status") ImageVariantStatus status);
+
+    @Query("""
+            select p.id as id, p.code as code, p.projectStatus as projectStatus, p.city as city
+            from ProjectImage i join i.project p
+            where i.id = :imageId
+            """)
+    Optional<OwnerRow> findOwner(@Param("imageId") Long imageId);
+
+    interface ImageKeyRow {
+        Long getProjectId();
+        String getS3Key();
+        ImageVariantStatus getVariantStatus();
+        String getLqip();
+    }
+
+    interface VariantSourceRow {
+        String getS3Key();
+        Integer getWidth();
+        Integer getHeight();
+        String getLqip();
+    }
+
+    interface IdKeyRow {
+        Long getId();
+        String getS3Key();
+    }
+
+    interface OwnerRow {
+        Long getId();
+        String getCode();
+        ProjectStatus getProjectStatus();
+        String getCity();
+    }
 }
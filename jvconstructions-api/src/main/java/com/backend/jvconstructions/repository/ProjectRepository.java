@@ -1,12 +1,18 @@
 package com.backend.jvconstructions.repository;
 
 import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.ImageVariantStatus;
 import com.backend.jvconstructions.enums.ProjectStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 @Repository
@@ -15,4 +21,147 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     Optional<Project> findByCode(String code);
     Page<Project> findByProjectStatus(ProjectStatus projectStatus, Pageable pageable);
     boolean existsByCode(String code);
+    List<Project> findByCodeIn(Collection<String> codes);
+
+    @Query("select p.id from Project p where p.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
+
+    @Query("select p.code from Project p where p.id = :id")
+    Optional<String> findCodeById(@Param("id") Long id);
+
+    /** Detail columns without the description LOB; see {@link #findDescriptionsByIdIn}. */
+    @Query("""
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.startDate as startDate, p.endDate as endDate
+            from Project p
+            where p.code in :codes
+            """)
+    List<DetailRow> findDetailRowsByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("select p.id as id, p.description as description from Project p where p.id in :ids")
+    List<DescriptionRow> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Card listing without touching the images collection or the description LOB.
+     * The hero S3 key is joined in; projects without a hero get their first image
+     * via {@link ProjectImageRepository#findFirstImageKeys}.
+     */
+    @Query(value = """
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   h.s3Key as heroS3Key, h.variantStatus as heroVariantStatus, h.lqip as heroLqip
+            from Project p
+            left join ProjectImage h on h.id = p.heroImageId and h.project.id = p.id
+            where (:status is null or p.projectStatus = :status)
+              and (:city is null or p.city = :city)
+            """,
+            countQuery = """
+            select count(p) from Project p
+            where (:status is null or p.projectStatus = :status)
+              and (:city is null or p.city = :city)
+            """)
+    Page<CardRow> findCards(@Param("status") ProjectStatus status, @Param("city") String city, Pageable pageable);
+
+    /**
+     * Keyset page of cards ordered by {@code (createdAt DESC, id DESC)}, starting
+     * after the given position (or from the newest card when it is null).
+     * The seek predicate is served by {@code idx_projects_created_at}.
+     */
+    @Query("""
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   h.s3Key as heroS3Key, h.variantStatus as heroVariantStatus, h.lqip as heroLqip
+            from Project p
+            left join ProjectImage h on h.id = p.heroImageId and h.project.id = p.id
+            where (:status is null or p.projectStatus = :status)
+              and (:city is null or p.city = :city)
+              and (:createdAt is null
+                   or p.createdAt < :createdAt
+                   or (p.createdAt = :createdAt and p.id < :id))
+            order by p.createdAt desc, p.id desc
+            """)
+    List<CardRow> findCardsOlderThan(@Param("status") ProjectStatus status,
+                                     @Param("city") String city,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    /**
+     * Keyset page walking backwards: cards newer than the given position, nearest
+     * first ({@code createdAt ASC, id ASC}). Callers reverse the result.
+     */
+    @Query("""
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   h.s3Key as heroS3Key, h.variantStatus as heroVariantStatus, h.lqip as heroLqip
+            from Project p
+            left join ProjectImage h on h.id = p.heroImageId and h.project.id = p.id
+            where (:status is null or p.projectStatus = :status)
+              and (:city is null or p.city = :city)
+              and (p.createdAt > :createdAt
+                   or (p.createdAt = :createdAt and p.id > :id))
+            order by p.createdAt asc, p.id asc
+            """)
+    List<CardRow> findCardsNewerThan(@Param("status") ProjectStatus status,
+                                     @Param("city") String city,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    @Query("""
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   h.s3Key as heroS3Key, h.variantStatus as heroVariantStatus, h.lqip as heroLqip
+            from Project p
+            left join ProjectImage h on h.id = p.heroImageId and h.project.id = p.id
+            where p.id in :ids
+            """)
+    List<CardRow> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select p.id as id, p.code as code, p.name as name, p.city as city,
+                   p.projectStatus as projectStatus, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   h.s3Key as heroS3Key, h.variantStatus as heroVariantStatus, h.lqip as heroLqip
+            from Project p
+            left join ProjectImage h on h.id = p.heroImageId and h.project.id = p.id
+            where p.code in :codes
+            """)
+    List<CardRow> findCardsByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("select p.id as id, p.projectStatus as projectStatus, p.city as city from Project p")
+    List<FacetRow> findFacetRows();
+
+    interface DetailRow {
+        Long getId();
+        String getCode();
+        String getName();
+        String getCity();
+        ProjectStatus getProjectStatus();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
+    interface DescriptionRow {
+        Long getId();
+        String getDescription();
+    }
+
+    interface FacetRow {
+        Long getId();
+        ProjectStatus getProjectStatus();
+        String getCity();
+    }
+
+    interface CardRow {
+        Long getId();
+        String getCode();
+        String getName();
+        String getCity();
+        ProjectStatus getProjectStatus();
+        Instant getCreatedAt();
+        Instant getUpdatedAt();
+        String getHeroS3Key();
+        ImageVariantStatus getHeroVariantStatus();
+        String getHeroLqip();
+    }
 }
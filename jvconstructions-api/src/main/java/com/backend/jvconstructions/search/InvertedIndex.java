@@ -0,0 +1,200 @@
+package com.backend.jvconstructions.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Small in-process inverted index with BM25 ranking. Query terms match exactly,
+ * as a prefix of an indexed term, or within a small edit distance; every query
+ * term has to match for a document to be returned.
+ * <p>
+ * Thread-safe: queries share a read lock, updates take the write lock.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final int MAX_EXPANSIONS = 64;
+
+    /** A piece of text to index with its relative weight (e.g. a name counts more than a description). */
+    public record Field(String text, double weight) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Double>> docTerms = new HashMap<>();
+    private final Map<Long, Double> docLengths = new HashMap<>();
+    private double totalLength;
+
+    /** Adds the document, replacing any previous version with the same id. */
+    public void put(Long id, List<Field> fields) {
+        Map<String, Double> termFrequencies = new HashMap<>();
+        double length = 0;
+        for (Field field : fields) {
+            for (String token : tokenize(field.text())) {
+                termFrequencies.merge(token, field.weight(), Double::sum);
+                length += field.weight();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Double> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            }
+            docTerms.put(id, termFrequencies);
+            docLengths.put(id, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of all matching documents, best match first. */
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            int documents = docTerms.size();
+            if (documents == 0) return List.of();
+            double averageLength = totalLength / documents;
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token, documents, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) ids.add(entry.getKey());
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best score per document for one query token across its exact, prefix and fuzzy expansions. */
+    private Map<Long, Double> scoreToken(String token, int documents, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Double> exact = postings.get(token);
+        if (exact != null) accumulate(scores, exact, 1.0, documents, averageLength);
+
+        if (token.length() >= 2) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Double>> entry
+                    : postings.subMap(token, false, token + Character.MAX_VALUE, true).entrySet()) {
+                accumulate(scores, entry.getValue(), PREFIX_WEIGHT, documents, averageLength);
+                if (++expansions >= MAX_EXPANSIONS) break;
+            }
+        }
+
+        if (exact == null && token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            // Typos rarely hit the first letter; restricting to it keeps the scan small.
+            String first = token.substring(0, 1);
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Double>> entry
+                    : postings.subMap(first, true, first + Character.MAX_VALUE, true).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) > maxEdits || term.startsWith(token)) continue;
+                if (editDistance(token, term, maxEdits) <= maxEdits) {
+                    accumulate(scores, entry.getValue(), FUZZY_WEIGHT, documents, averageLength);
+                    if (++expansions >= MAX_EXPANSIONS) break;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Double> posting, double weight,
+                            int documents, double averageLength) {
+        double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Long, Double> entry : posting.entrySet()) {
+            double tf = entry.getValue();
+            double length = docLengths.getOrDefault(entry.getKey(), averageLength);
+            double score = weight * idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / averageLength));
+            scores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Map<String, Double> terms = docTerms.remove(id);
+        if (terms == null) return;
+        for (String term : terms.keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(id);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+        Double length = docLengths.remove(id);
+        if (length != null) totalLength -= length;
+    }
+
+    /** Lower-cased, accent-folded runs of letters and digits, at least two characters long. */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean inWord = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                if (i - start >= 2) tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** Levenshtein distance, giving up early once it must exceed {@code max}. */
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
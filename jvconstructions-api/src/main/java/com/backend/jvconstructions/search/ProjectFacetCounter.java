@@ -0,0 +1,146 @@
+package com.backend.jvconstructions.search;
+
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Per-status and per-city project counts for the gallery filters. Counters are
+ * adjusted from {@link ProjectChangedEvent}s and periodically reconciled against
+ * the database; {@link #facets()} only returns the last published result.
+ * Cities are grouped case-insensitively, like the city filter. The first reconcile
+ * runs on a background thread once the application is ready, retrying with backoff
+ * while the database is unavailable.
+ */
+@Component
+public class ProjectFacetCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectFacetCounter.class);
+
+    private record Facets(ProjectStatus projectStatus, String city) {}
+
+    private final ProjectRepository projectRepository;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<Long, Facets> projects = new HashMap<>();
+    private final EnumMap<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
+    private final TreeMap<String, Long> cityCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private volatile ProjectDTOs.FacetsDTO published = new ProjectDTOs.FacetsDTO(0, Map.of(), Map.of());
+
+    public ProjectFacetCounter(ProjectRepository projectRepository,
+                               @Value("${projects.facets.initialBackoffMs:1000}") long initialBackoffMs,
+                               @Value("${projects.facets.maxBackoffMs:60000}") long maxBackoffMs) {
+        this.projectRepository = projectRepository;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public ProjectDTOs.FacetsDTO facets() {
+        return published;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProjectChanged(ProjectChangedEvent event) {
+        if (event.type() == ProjectChangedEvent.Type.IMAGES_CHANGED) return;
+        if (event.type() == ProjectChangedEvent.Type.DELETED) {
+            Facets previous = projects.remove(event.projectId());
+            if (previous != null) count(previous, -1);
+        } else {
+            track(event.projectId(), new Facets(event.projectStatus(), event.city()));
+        }
+        publish();
+    }
+
+    /** Counts a whole import and publishes once. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProjectsImported(ProjectsImportedEvent event) {
+        for (ProjectsImportedEvent.Imported p : event.projects()) {
+            track(p.projectId(), new Facets(p.projectStatus(), p.city()));
+        }
+        publish();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReconcile() {
+        Thread thread = new Thread(this::reconcileWithRetry, "project-facet-reconcile");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void reconcileWithRetry() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                reconcile();
+                return;
+            } catch (RuntimeException e) {
+                long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+                log.warn("Failed to load project facets (attempt {}), retrying in {} ms", attempt, backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Rebuilds every counter from the database; applying events again afterwards is harmless. */
+    @Scheduled(fixedDelayString = "${projects.facets.reconcileIntervalMs:300000}",
+            initialDelayString = "${projects.facets.reconcileIntervalMs:300000}")
+    public synchronized void reconcile() {
+        Map<Long, Facets> fromDb = new HashMap<>();
+        for (ProjectRepository.FacetRow row : projectRepository.findFacetRows()) {
+            fromDb.put(row.getId(), new Facets(row.getProjectStatus(), row.getCity()));
+        }
+        if (!fromDb.equals(projects) && published.total() > 0) {
+            log.info("Project facet counters drifted from the database ({} tracked, {} in database), rebuilding",
+                    projects.size(), fromDb.size());
+        }
+        projects.clear();
+        statusCounts.clear();
+        cityCounts.clear();
+        projects.putAll(fromDb);
+        fromDb.values().forEach(facets -> count(facets, 1));
+        publish();
+    }
+
+    private void track(Long projectId, Facets facets) {
+        Facets previous = projects.put(projectId, facets);
+        if (previous != null) count(previous, -1);
+        count(facets, 1);
+    }
+
+    private void count(Facets facets, long delta) {
+        if (facets.projectStatus() != null) {
+            statusCounts.merge(facets.projectStatus(), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        if (facets.city() != null && !facets.city().isBlank()) {
+            cityCounts.merge(facets.city(), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private void publish() {
+        Map<String, Long> cities = new LinkedHashMap<>();
+        cityCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> cities.put(entry.getKey(), entry.getValue()));
+        published = new ProjectDTOs.FacetsDTO(
+                projects.size(),
+                Collections.unmodifiableMap(new EnumMap<>(statusCounts)),
+                Collections.unmodifiableMap(cities));
+    }
+}
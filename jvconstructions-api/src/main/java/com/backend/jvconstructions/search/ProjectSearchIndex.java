@@ -0,0 +1,145 @@
+package com.backend.jvconstructions.search;
+
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-text index over project name, city, address and description, kept current from
+ * {@link ProjectChangedEvent}s. Once the application is ready the full index is built on a
+ * background thread, retrying with backoff while the database is unavailable, and swapped
+ * in when done. Projects that changed during the build are re-read into it before the
+ * swap, so the stale rows the bulk read may have seen never replace newer ones. Until
+ * then searches only see projects changed since startup.
+ */
+@Component
+public class ProjectSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectSearchIndex.class);
+
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readTx;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Object writeLock = new Object();
+    private final Set<Long> changedWhileBuilding = new HashSet<>();
+    private boolean building;
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    public ProjectSearchIndex(ProjectRepository projectRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${projects.search.initialBackoffMs:1000}") long initialBackoffMs,
+                              @Value("${projects.search.maxBackoffMs:60000}") long maxBackoffMs) {
+        this.projectRepository = projectRepository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /** Project ids matching the query, best match first. */
+    public List<Long> search(String query) {
+        return index.search(query);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread thread = new Thread(this::buildWithRetry, "project-search-index-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void buildWithRetry() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                build();
+                return;
+            } catch (RuntimeException e) {
+                long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+                log.warn("Failed to build project search index (attempt {}), retrying in {} ms", attempt, backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void build() {
+        long started = System.nanoTime();
+        InvertedIndex built = new InvertedIndex();
+        synchronized (writeLock) {
+            building = true;
+        }
+        readTx.executeWithoutResult(status -> projectRepository.findAll().forEach(p -> put(built, p)));
+        synchronized (writeLock) {
+            if (!changedWhileBuilding.isEmpty()) refresh(built, List.copyOf(changedWhileBuilding));
+            changedWhileBuilding.clear();
+            building = false;
+            index = built;
+        }
+        log.info("Project search index built with {} projects in {} ms",
+                built.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.type() == ProjectChangedEvent.Type.IMAGES_CHANGED) return;
+        synchronized (writeLock) {
+            if (building) changedWhileBuilding.add(event.projectId());
+            if (event.type() == ProjectChangedEvent.Type.DELETED) index.remove(event.projectId());
+            else refresh(index, List.of(event.projectId()));
+        }
+    }
+
+    /** Indexes a whole import after one read of its rows. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectsImported(ProjectsImportedEvent event) {
+        List<Long> projectIds = event.projectIds();
+        synchronized (writeLock) {
+            if (building) changedWhileBuilding.addAll(projectIds);
+            refresh(index, projectIds);
+        }
+    }
+
+    /** Re-reads the given projects into {@code target}, removing those that no longer exist. */
+    private void refresh(InvertedIndex target, Collection<Long> projectIds) {
+        readTx.executeWithoutResult(status -> {
+            Set<Long> missing = new HashSet<>(projectIds);
+            for (Project p : projectRepository.findAllById(projectIds)) {
+                put(target, p);
+                missing.remove(p.getId());
+            }
+            missing.forEach(target::remove);
+        });
+    }
+
+    private static void put(InvertedIndex target, Project p) {
+        target.put(p.getId(), List.of(
+                new InvertedIndex.Field(p.getName(), 3.0),
+                new InvertedIndex.Field(p.getCity(), 2.0),
+                new InvertedIndex.Field(p.getAddressLine1(), 1.5),
+                new InvertedIndex.Field(p.getDescription(), 1.0)
+        ));
+    }
+}
@@ -1,5 +1,6 @@
 package com.backend.jvconstructions.service;
 
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.EnquiryDTOs;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,5 +8,6 @@ import org.springframework.data.domain.Pageable;
 public interface EnquiryService {
     EnquiryDTOs.EnquiryDTO create(EnquiryDTOs.CreateEnquiryRequest req, String ip, String userAgent);
     Page<EnquiryDTOs.EnquiryDTO> list(String status, Pageable pageable);
+    CursorPage<EnquiryDTOs.EnquiryDTO> inbox(EnquiryDTOs.InboxFilter filter, String cursor, int size);
     EnquiryDTOs.EnquiryDTO update(Long id, EnquiryDTOs.UpdateEnquiryRequest request, String actor);
 }
@@ -1,7 +1,9 @@
 package com.backend.jvconstructions.service;
 
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.ProjectDTOs;
 import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.util.SparseFields;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,12 +12,20 @@ import java.util.List;
 
 public interface ProjectService {
     ProjectDTOs.ProjectDetailDTO create(ProjectDTOs.CreateProjectRequest req, String actor);
+    ProjectDTOs.ProjectImportResponse importProjects(ProjectDTOs.ProjectImportRequest req, String actor);
     Page<ProjectDTOs.ProjectCardDTO> list(ProjectStatus status, String city, Pageable pageable);
+    CursorPage<ProjectDTOs.ProjectCardDTO> listByCursor(ProjectStatus status, String city, String cursor, int size);
+    Page<ProjectDTOs.ProjectCardDTO> search(String query, Pageable pageable);
     ProjectDTOs.ProjectDetailDTO getByCode(String code);
+    ProjectDTOs.ProjectDetailDTO getByCode(String code, SparseFields fields);
+    ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectDetailDTO> getDetailsByCodes(List<String> codes, SparseFields fields);
+    ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectCardDTO> getCardsByCodes(List<String> codes);
     ProjectDTOs.ProjectDetailDTO update(Long id, ProjectDTOs.UpdateProjectRequest req, String actor);
     void delete(Long id, String actor);
     ProjectDTOs.PresignedUrlResponse getPresignedUploadUrl(Long projectId, ProjectDTOs.PresignedUrlRequest req, String actor);
+    List<ProjectDTOs.PresignedUrlResponse> getPresignedUploadUrls(Long projectId, ProjectDTOs.PresignedUrlBatchRequest req, String actor);
     ProjectDTOs.ImageDTO confirmImage(Long projectId, ProjectDTOs.ConfirmImageReq req, String actor);
+    List<ProjectDTOs.ImageDTO> confirmImages(Long projectId, ProjectDTOs.ConfirmImagesRequest req, String actor);
     void deleteImage(Long projectId, Long imageId, String actor);
     void setHeroImage(Long projectId, Long imageId, String actor);
     ProjectDTOs.ImageDTO uploadImage(Long projectId, MultipartFile file, Boolean isHero, Integer sortOrder, String actor);
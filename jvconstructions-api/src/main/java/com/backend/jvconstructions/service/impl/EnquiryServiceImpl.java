@@ -1,21 +1,34 @@
 package com.backend.jvconstructions.service.impl;
 
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.enquiry.EnquiryDeduplicator;
 import com.backend.jvconstructions.entity.Enquiry;
 import com.backend.jvconstructions.entity.Project;
 import com.backend.jvconstructions.enums.ProjectRole;
+import com.backend.jvconstructions.exception.BadRequestException;
 import com.backend.jvconstructions.exception.NotFoundException;
 import com.backend.jvconstructions.repository.EnquiryRepository;
 import com.backend.jvconstructions.repository.ProjectRepository;
 import com.backend.jvconstructions.service.EnquiryService;
+import com.backend.jvconstructions.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class EnquiryServiceImpl implements EnquiryService {
@@ -24,15 +37,25 @@ public class EnquiryServiceImpl implements EnquiryService {
 
     private final EnquiryRepository enquiryRepository;
     private final ProjectRepository projectRepository;
+    private final ProjectCodeCache projectCodeCache;
+    private final EnquiryDeduplicator enquiryDeduplicator;
 
+    /** A repeat of a recent submission returns the enquiry stored for the first one. */
     @Override
     public EnquiryDTOs.EnquiryDTO create(EnquiryDTOs.CreateEnquiryRequest req, String ip, String userAgent) {
+        return enquiryDeduplicator.create(req, () -> store(req));
+    }
+
+    private EnquiryDTOs.EnquiryDTO store(EnquiryDTOs.CreateEnquiryRequest req) {
         Project p = null;
+        Long projectId = null;
         if (req.projectCode() != null && !req.projectCode().isBlank()) {
-            p = projectRepository.findByCode(req.projectCode())
-                    .orElseThrow(() -> new NotFoundException(String.format("Project with code %s not found", req.projectCode())));
+            projectId = projectCodeCache.idOf(req.projectCode())
+                    .orElseThrow(() -> projectNotFound(req.projectCode()));
+            p = projectRepository.getReferenceById(projectId);
         }
         Enquiry enquiry = Enquiry.builder()
+                .trackingId(UUID.randomUUID().toString())
                 .project(p)
                 .name(req.name())
                 .email(req.email())
@@ -41,8 +64,20 @@ public class EnquiryServiceImpl implements EnquiryService {
                 .status("NEW")
                 .utmSource(null)
                 .build();
-        enquiry = enquiryRepository.save(enquiry);
-        return toDto(enquiry);
+        try {
+            enquiry = enquiryRepository.save(enquiry);
+        } catch (DataIntegrityViolationException e) {
+            // The cached id can outlive a project deleted on another instance.
+            if (projectId == null) throw e;
+            projectCodeCache.evictId(projectId);
+            throw projectNotFound(req.projectCode());
+        }
+        // The project is only a reference; use the code we already have instead of loading it.
+        return toDto(enquiry, p == null ? null : req.projectCode());
+    }
+
+    private static NotFoundException projectNotFound(String code) {
+        return new NotFoundException(String.format("Project with code %s not found", code));
     }
 
     @Override
@@ -54,6 +89,59 @@ public class EnquiryServiceImpl implements EnquiryService {
         return page.map(this::toDto);
     }
 
+    @Override
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public CursorPage<EnquiryDTOs.EnquiryDTO> inbox(EnquiryDTOs.InboxFilter filter, String cursor, int size) {
+        if (size < 1 || size > 100) throw new BadRequestException("size must be between 1 and 100");
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to()))
+            throw new BadRequestException("from must be before to");
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        String status = blankToNull(filter.status());
+        String assignedTo = blankToNull(filter.assignedTo());
+        Long projectId = null;
+        String projectCode = blankToNull(filter.projectCode());
+        if (projectCode != null) {
+            Optional<Long> id = projectCodeCache.idOf(projectCode);
+            if (id.isEmpty()) return new CursorPage<>(List.of(), null, null);
+            projectId = id.get();
+        }
+
+        // Fetch one extra row to learn whether another page exists, instead of counting.
+        Limit limit = Limit.of(size + 1);
+        List<EnquiryRepository.InboxRow> rows;
+        boolean hasNext;
+        boolean hasPrev;
+        if (position != null && position.backward()) {
+            rows = new ArrayList<>(enquiryRepository.findInboxNewerThan(status, assignedTo, projectId,
+                    filter.from(), filter.to(), position.createdAt(), position.id(), limit));
+            hasPrev = rows.size() > size;
+            if (hasPrev) rows = rows.subList(0, size);
+            Collections.reverse(rows);
+            hasNext = true;
+        } else {
+            rows = enquiryRepository.findInboxOlderThan(status, assignedTo, projectId, filter.from(), filter.to(),
+                    position == null ? null : position.createdAt(),
+                    position == null ? null : position.id(),
+                    limit);
+            hasNext = rows.size() > size;
+            if (hasNext) rows = rows.subList(0, size);
+            hasPrev = position != null;
+        }
+        if (rows.isEmpty()) return new CursorPage<>(List.of(), null, null);
+
+        EnquiryRepository.InboxRow first = rows.get(0);
+        EnquiryRepository.InboxRow last = rows.get(rows.size() - 1);
+        return new CursorPage<>(
+                rows.stream().map(EnquiryServiceImpl::toDto).toList(),
+                hasNext ? KeysetCursor.after(last.createdAt(), last.id()).encode() : null,
+                hasPrev ? KeysetCursor.before(first.createdAt(), first.id()).encode() : null
+        );
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     @Override
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public EnquiryDTOs.EnquiryDTO update(Long id, EnquiryDTOs.UpdateEnquiryRequest request, String actor) {
@@ -65,10 +153,30 @@ public class EnquiryServiceImpl implements EnquiryService {
         return toDto(enquiry);
     }
 
+    private static EnquiryDTOs.EnquiryDTO toDto(EnquiryRepository.InboxRow row) {
+        return new EnquiryDTOs.EnquiryDTO(
+                row.id(),
+                row.trackingId(),
+                row.projectCode(),
+                row.name(),
+                row.email(),
+                row.phone(),
+                row.message(),
+                row.status(),
+                row.assignedTo(),
+                row.createdAt()
+        );
+    }
+
     private EnquiryDTOs.EnquiryDTO toDto(Enquiry enquiry) {
+        return toDto(enquiry, enquiry.getProject() == null ? null : enquiry.getProject().getCode());
+    }
+
+    private EnquiryDTOs.EnquiryDTO toDto(Enquiry enquiry, String projectCode) {
         return new EnquiryDTOs.EnquiryDTO(
                 enquiry.getId(),
-                enquiry.getProject() == null ? null : enquiry.getProject().getCode(),
+                enquiry.getTrackingId(),
+                projectCode,
                 enquiry.getName(),
                 enquiry.getEmail(),
                 enquiry.getPhone(),
@@ -1,32 +1,65 @@
 package com.backend.jvconstructions.service.impl;
 
+import com.backend.jvconstructions.cache.ProjectReadModel;
+import com.backend.jvconstructions.config.CacheConfig;
+import com.backend.jvconstructions.dto.CursorPage;
 import com.backend.jvconstructions.dto.ProjectDTOs;
 import com.backend.jvconstructions.entity.Project;
 import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ImageVariantStatus;
 import com.backend.jvconstructions.enums.ProjectRole;
+import com.backend.jvconstructions.event.ImageStoredEvent;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
 import com.backend.jvconstructions.enums.ProjectStatus;
 import com.backend.jvconstructions.exception.BadRequestException;
 import com.backend.jvconstructions.exception.NotFoundException;
+import com.backend.jvconstructions.media.BlobStore;
+import com.backend.jvconstructions.media.ImageVariant;
+import com.backend.jvconstructions.media.MediaOutbox;
+import com.backend.jvconstructions.media.ParallelUploader;
 import com.backend.jvconstructions.repository.ProjectImageRepository;
 import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.search.ProjectSearchIndex;
 import com.backend.jvconstructions.service.ProjectService;
 import com.backend.jvconstructions.util.DtoMapper;
+import com.backend.jvconstructions.util.KeysetCursor;
 import com.backend.jvconstructions.util.MediaStorage;
+import com.backend.jvconstructions.util.ProjectCodes;
+import com.backend.jvconstructions.util.SparseFields;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +70,13 @@ public class ProjectServiceImpl implements ProjectService {
     private final ProjectRepository projectRepository;
     private final ProjectImageRepository projectImageRepository;
     private final MediaStorage mediaStorage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectReadModel projectReadModel;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final ParallelUploader parallelUploader;
+    private final BlobStore blobStore;
+    private final MediaOutbox mediaOutbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -56,23 +96,248 @@ public class ProjectServiceImpl implements ProjectService {
                 .endDate(req.endDate())
                 .build();
         p = projectRepository.save(p);
+        publishChange(p, ProjectChangedEvent.Type.CREATED);
         return DtoMapper.toDetail(p, mediaStorage::toCdnUrl);
     }
 
+    /** All or nothing; rows go out in JDBC batches of {@code hibernate.jdbc.batch_size}. */
     @Override
+    @Transactional
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public ProjectDTOs.ProjectImportResponse importProjects(ProjectDTOs.ProjectImportRequest req, String actor) {
+        // Compared the way the unique index compares them, so case-only repeats are caught here.
+        Set<String> keys = new HashSet<>();
+        List<String> codes = new ArrayList<>();
+        for (ProjectDTOs.CreateProjectRequest project : req.projects()) {
+            if (!keys.add(ProjectCodes.key(project.code()))) {
+                throw new BadRequestException(String.format("Duplicate project code %s", project.code()));
+            }
+            codes.add(project.code());
+        }
+        List<String> existing = projectRepository.findByCodeIn(codes).stream().map(Project::getCode).toList();
+        if (!existing.isEmpty()) throw new BadRequestException(String.format("Project codes already exist: %s", existing));
+
+        List<Project> projects = req.projects().stream()
+                .map(r -> Project.builder()
+                        .code(r.code())
+                        .name(r.name())
+                        .description(r.description())
+                        .projectStatus(r.projectStatus())
+                        .city(r.city())
+                        .addressLine1(r.addressLine1())
+                        .addressLine2(r.addressLine2())
+                        .pinCode(r.pinCode())
+                        .startDate(r.startDate())
+                        .endDate(r.endDate())
+                        .build())
+                .toList();
+        projects = projectRepository.saveAll(projects);
+        eventPublisher.publishEvent(new ProjectsImportedEvent(projects.stream()
+                .map(p -> new ProjectsImportedEvent.Imported(p.getId(), p.getCode(), p.getProjectStatus(), p.getCity()))
+                .toList()));
+        log.info("Imported {} projects", projects.size());
+        return new ProjectDTOs.ProjectImportResponse(projects.size());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PROJECT_LIST, key = "{#status, #city, #pageable}", sync = true)
     public Page<ProjectDTOs.ProjectCardDTO> list(ProjectStatus status, String city, Pageable pageable) {
-        Page<Project> page = (status != null)
-                ? projectRepository.findByProjectStatus(status, pageable)
-                : projectRepository.findAll(pageable);
-        return page.map(p -> DtoMapper.toCard(p, mediaStorage::toCdnUrl));
+        String cityFilter = normalizeCity(city);
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) {
+            Optional<Page<ProjectDTOs.ProjectCardDTO>> cards = snapshot.list(status, cityFilter, pageable);
+            if (cards.isPresent()) return cards.get();
+        }
+        Page<ProjectRepository.CardRow> page = projectRepository.findCards(status, cityFilter, pageable);
+        Map<Long, ProjectImageRepository.ImageKeyRow> firstImages = firstImages(page.getContent());
+        return page.map(row -> DtoMapper.toCard(row, firstImages.get(row.getId()), mediaStorage::toCdnUrl));
+    }
+
+    @Override
+    public CursorPage<ProjectDTOs.ProjectCardDTO> listByCursor(ProjectStatus status, String city, String cursor, int size) {
+        if (size < 1 || size > 100) throw new BadRequestException("size must be between 1 and 100");
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        String cityFilter = normalizeCity(city);
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) return snapshot.listByCursor(status, cityFilter, position, size);
+
+        // Fetch one extra row to learn whether another page exists, instead of counting.
+        Limit limit = Limit.of(size + 1);
+        List<ProjectRepository.CardRow> rows;
+        boolean hasNext;
+        boolean hasPrev;
+        if (position != null && position.backward()) {
+            rows = new ArrayList<>(projectRepository.findCardsNewerThan(status, cityFilter, position.createdAt(), position.id(), limit));
+            hasPrev = rows.size() > size;
+            if (hasPrev) rows = rows.subList(0, size);
+            Collections.reverse(rows);
+            hasNext = true;
+        } else {
+            rows = projectRepository.findCardsOlderThan(status, cityFilter,
+                    position == null ? null : position.createdAt(),
+                    position == null ? null : position.id(),
+                    limit);
+            hasNext = rows.size() > size;
+            if (hasNext) rows = rows.subList(0, size);
+            hasPrev = position != null;
+        }
+        if (rows.isEmpty()) return new CursorPage<>(List.of(), null, null);
+
+        ProjectRepository.CardRow first = rows.get(0);
+        ProjectRepository.CardRow last = rows.get(rows.size() - 1);
+        return new CursorPage<>(
+                toCards(rows),
+                hasNext ? KeysetCursor.after(last.getCreatedAt(), last.getId()).encode() : null,
+                hasPrev ? KeysetCursor.before(first.getCreatedAt(), first.getId()).encode() : null
+        );
+    }
+
+    @Override
+    public Page<ProjectDTOs.ProjectCardDTO> search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) throw new BadRequestException("Search query must not be blank");
+        List<Long> ranked = projectSearchIndex.search(query);
+        List<Long> pageIds = ranked;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            pageIds = ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+        }
+        return new PageImpl<>(cardsInOrder(pageIds), pageable, ranked.size());
     }
 
+    private List<ProjectDTOs.ProjectCardDTO> cardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) {
+            return ids.stream().map(snapshot::card).flatMap(Optional::stream).toList();
+        }
+        Map<Long, ProjectRepository.CardRow> rowsById = new HashMap<>();
+        for (ProjectRepository.CardRow row : projectRepository.findCardsByIdIn(ids)) rowsById.put(row.getId(), row);
+        return toCards(ids.stream().map(rowsById::get).filter(Objects::nonNull).toList());
+    }
+
+    private List<ProjectDTOs.ProjectCardDTO> toCards(List<ProjectRepository.CardRow> rows) {
+        Map<Long, ProjectImageRepository.ImageKeyRow> firstImages = firstImages(rows);
+        return rows.stream()
+                .map(row -> DtoMapper.toCard(row, firstImages.get(row.getId()), mediaStorage::toCdnUrl))
+                .toList();
+    }
+
+    // One extra statement per page, and only when some cards have no hero image.
+    private Map<Long, ProjectImageRepository.ImageKeyRow> firstImages(List<ProjectRepository.CardRow> rows) {
+        List<Long> withoutHero = rows.stream()
+                .filter(row -> row.getHeroS3Key() == null)
+                .map(ProjectRepository.CardRow::getId)
+                .toList();
+        if (withoutHero.isEmpty()) return Map.of();
+        Map<Long, ProjectImageRepository.ImageKeyRow> images = new HashMap<>();
+        for (ProjectImageRepository.ImageKeyRow row : projectImageRepository.findFirstImageKeys(withoutHero)) {
+            images.putIfAbsent(row.getProjectId(), row);
+        }
+        return images;
+    }
+
+    /** Not cached here: the read model holds every detail, and ProjectResponseCache the encoded bodies. */
     @Override
     public ProjectDTOs.ProjectDetailDTO getByCode(String code) {
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) {
+            return snapshot.detail(code).orElseThrow(() -> new NotFoundException("Project with code not found."));
+        }
         Project p = projectRepository.findByCode(code).orElseThrow(() -> new NotFoundException("Project with code not found."));
         return DtoMapper.toDetail(p, mediaStorage::toCdnUrl);
     }
 
+    @Override
+    public ProjectDTOs.ProjectDetailDTO getByCode(String code, SparseFields fields) {
+        if (fields.isAll()) return getByCode(code);
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) {
+            return snapshot.detail(code).orElseThrow(() -> new NotFoundException("Project with code not found."));
+        }
+        List<ProjectDTOs.ProjectDetailDTO> details = sparseDetails(List.of(code), fields);
+        if (details.isEmpty()) throw new NotFoundException("Project with code not found.");
+        return details.get(0);
+    }
+
+    @Override
+    public ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectDetailDTO> getDetailsByCodes(List<String> codes, SparseFields fields) {
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) return inRequestOrder(codes, snapshot::detail);
+        if (!fields.isAll()) {
+            Map<String, ProjectDTOs.ProjectDetailDTO> byCode = new HashMap<>();
+            for (ProjectDTOs.ProjectDetailDTO detail : sparseDetails(new LinkedHashSet<>(codes), fields)) {
+                byCode.put(ProjectCodes.key(detail.code()), detail);
+            }
+            return inRequestOrder(codes, code -> Optional.ofNullable(byCode.get(ProjectCodes.key(code))));
+        }
+
+        // One IN query for the projects and one for all of their images.
+        List<Project> projects = projectRepository.findByCodeIn(new LinkedHashSet<>(codes));
+        Map<Long, List<ProjectImage>> imagesByProject = new HashMap<>();
+        if (!projects.isEmpty()) {
+            List<Long> ids = projects.stream().map(Project::getId).toList();
+            for (ProjectImage image : projectImageRepository.findByProjectIdInOrderBySortOrderAscIdAsc(ids)) {
+                imagesByProject.computeIfAbsent(image.getProject().getId(), id -> new ArrayList<>()).add(image);
+            }
+        }
+        Map<String, ProjectDTOs.ProjectDetailDTO> byCode = new HashMap<>();
+        for (Project p : projects) {
+            byCode.put(ProjectCodes.key(p.getCode()), DtoMapper.toDetail(p, imagesByProject.getOrDefault(p.getId(), List.of()), mediaStorage::toCdnUrl));
+        }
+        return inRequestOrder(codes, code -> Optional.ofNullable(byCode.get(ProjectCodes.key(code))));
+    }
+
+    @Override
+    public ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectCardDTO> getCardsByCodes(List<String> codes) {
+        ProjectReadModel.Snapshot snapshot = projectReadModel.snapshot();
+        if (snapshot != null) return inRequestOrder(codes, snapshot::cardByCode);
+
+        List<ProjectRepository.CardRow> rows = projectRepository.findCardsByCodeIn(new LinkedHashSet<>(codes));
+        List<ProjectDTOs.ProjectCardDTO> cards = toCards(rows);
+        Map<String, ProjectDTOs.ProjectCardDTO> byCode = new HashMap<>();
+        for (ProjectDTOs.ProjectCardDTO card : cards) byCode.put(ProjectCodes.key(card.code()), card);
+        return inRequestOrder(codes, code -> Optional.ofNullable(byCode.get(ProjectCodes.key(code))));
+    }
+
+    /**
+     * Details built from the column projection, reading the description LOB and the
+     * image rows only when the selected fields include them.
+     */
+    private List<ProjectDTOs.ProjectDetailDTO> sparseDetails(Collection<String> codes, SparseFields fields) {
+        List<ProjectRepository.DetailRow> rows = projectRepository.findDetailRowsByCodeIn(codes);
+        if (rows.isEmpty()) return List.of();
+        List<Long> ids = rows.stream().map(ProjectRepository.DetailRow::getId).toList();
+
+        Map<Long, String> descriptions = new HashMap<>();
+        if (fields.includes("description")) {
+            for (ProjectRepository.DescriptionRow row : projectRepository.findDescriptionsByIdIn(ids)) {
+                if (row.getDescription() != null) descriptions.put(row.getId(), row.getDescription());
+            }
+        }
+        Map<Long, List<ProjectImage>> imagesByProject = new HashMap<>();
+        if (fields.includes("images")) {
+            for (ProjectImage image : projectImageRepository.findByProjectIdInOrderBySortOrderAscIdAsc(ids)) {
+                imagesByProject.computeIfAbsent(image.getProject().getId(), id -> new ArrayList<>()).add(image);
+            }
+        }
+        return rows.stream()
+                .map(row -> DtoMapper.toDetail(row, descriptions.get(row.getId()),
+                        imagesByProject.getOrDefault(row.getId(), List.of()), mediaStorage::toCdnUrl))
+                .toList();
+    }
+
+    /** Codes differing only in case name the same project; the first spelling is kept. */
+    private static <T> ProjectDTOs.ProjectBatchResponse<T> inRequestOrder(List<String> codes, Function<String, Optional<T>> lookup) {
+        List<T> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String code : codes) {
+            if (!seen.add(ProjectCodes.key(code))) continue;
+            lookup.apply(code).ifPresentOrElse(found::add, () -> missing.add(code));
+        }
+        return new ProjectDTOs.ProjectBatchResponse<>(found, missing);
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
@@ -89,6 +354,7 @@ public class ProjectServiceImpl implements ProjectService {
         if (req.startDate() != null) p.setStartDate(req.startDate());
         if (req.endDate() != null) p.setEndDate(req.endDate());
         if (req.heroImageId() != null) p.setHeroImageId(req.heroImageId());
+        publishChange(p, ProjectChangedEvent.Type.UPDATED);
         return DtoMapper.toDetail(p, mediaStorage::toCdnUrl);
     }
 
@@ -98,26 +364,46 @@ public class ProjectServiceImpl implements ProjectService {
     public void delete(Long id, String actor) {
         Project p = projectRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", id)));
-        for (ProjectImage projectImage : p.getImages()) {
-            mediaStorage.deleteObject(projectImage.getS3Key());
-        }
+        List<String> s3Keys = projectImageRepository.findS3KeysByProjectId(id);
+        // One statement for all image rows instead of loading and removing them one by one.
+        projectImageRepository.deleteAllOfProject(id);
         projectRepository.delete(p);
+        releaseMedia(s3Keys);
+        publishChange(p, ProjectChangedEvent.Type.DELETED);
     }
 
     @Override
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ProjectDTOs.PresignedUrlResponse getPresignedUploadUrl(Long projectId, ProjectDTOs.PresignedUrlRequest req, String actor) {
-        Project p = projectRepository.findById(projectId)
+        String code = projectRepository.findCodeById(projectId)
+                .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
+        return presign(code, req);
+    }
+
+    /** One project lookup for the whole batch; signing itself is local and needs no round trip. */
+    @Override
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public List<ProjectDTOs.PresignedUrlResponse> getPresignedUploadUrls(Long projectId, ProjectDTOs.PresignedUrlBatchRequest req, String actor) {
+        String code = projectRepository.findCodeById(projectId)
                 .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
-        if (!req.mimeType().startsWith("image/")) throw new BadRequestException("Only images allowed.");
-        String ext = switch (req.mimeType()) {
+        // Validate every file before signing any of them.
+        req.files().forEach(file -> imageExtension(file.mimeType()));
+        return req.files().stream().map(file -> presign(code, file)).toList();
+    }
+
+    private ProjectDTOs.PresignedUrlResponse presign(String code, ProjectDTOs.PresignedUrlRequest req) {
+        String key = String.format("projects/%s/images/%s.%s", code, UUID.randomUUID(), imageExtension(req.mimeType()));
+        return mediaStorage.createPresignedPut(key, req.mimeType(), req.sizeBytes());
+    }
+
+    private static String imageExtension(String mimeType) {
+        if (!mimeType.startsWith("image/")) throw new BadRequestException("Only images allowed.");
+        return switch (mimeType) {
             case "image/jpeg" -> "jpg";
             case "image/png" -> "png";
             case "image/webp" -> "webp";
             default -> throw new BadRequestException("Unsupported image type.");
         };
-        String key = String.format("projects/%s/images/%s.%s", p.getCode(), UUID.randomUUID(), ext);
-        return mediaStorage.createPresignedPut(key, req.mimeType(), req.sizeBytes());
     }
 
     @Override
@@ -126,9 +412,105 @@ public class ProjectServiceImpl implements ProjectService {
     public ProjectDTOs.ImageDTO confirmImage(Long projectId, ProjectDTOs.ConfirmImageReq req, String actor) {
         Project p = projectRepository.findById(projectId)
                 .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
-        if (req.s3Key() == null || !req.s3Key().startsWith("projects/" + p.getCode()))
-            throw new BadRequestException(String.format("s3Key %s does not belong to this project", req.s3Key()));
-        ProjectImage image = ProjectImage.builder()
+        checkConfirmedKey(p, req.s3Key());
+        checkUploaded(req.s3Key());
+        ProjectImage image = projectImageRepository.save(confirmedImage(p, req));
+
+        if (Boolean.TRUE.equals(req.isHero())) p.setHeroImageId(image.getId());
+        publishChange(p, ProjectChangedEvent.Type.IMAGES_CHANGED);
+        eventPublisher.publishEvent(new ImageStoredEvent(image.getId(), image.getS3Key()));
+        return DtoMapper.toImage(image, Objects.equals(p.getHeroImageId(), image.getId()), mediaStorage::toCdnUrl);
+    }
+
+    /**
+     * All-or-nothing: every key is validated before anything is written, and the rows
+     * go in as one batched insert.
+     */
+    @Override
+    @Transactional
+    @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
+    public List<ProjectDTOs.ImageDTO> confirmImages(Long projectId, ProjectDTOs.ConfirmImagesRequest req, String actor) {
+        Project p = projectRepository.findById(projectId)
+                .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
+        Set<String> keys = new HashSet<>();
+        for (ProjectDTOs.ConfirmImageReq image : req.images()) {
+            checkConfirmedKey(p, image.s3Key());
+            if (!keys.add(image.s3Key()))
+                throw new BadRequestException(String.format("s3Key %s is listed more than once", image.s3Key()));
+        }
+        if (req.images().stream().filter(image -> Boolean.TRUE.equals(image.isHero())).count() > 1)
+            throw new BadRequestException("At most one image can be the hero.");
+        List<String> existing = projectImageRepository.findExistingS3Keys(keys);
+        if (!existing.isEmpty())
+            throw new BadRequestException(String.format("s3Key %s is already confirmed", existing.get(0)));
+        for (ProjectDTOs.ConfirmImageReq image : req.images()) checkUploaded(image.s3Key());
+
+        List<ProjectImage> images = new ArrayList<>(req.images().size());
+        for (ProjectDTOs.ConfirmImageReq image : req.images()) images.add(confirmedImage(p, image));
+        images = projectImageRepository.saveAll(images);
+
+        List<ProjectDTOs.ImageDTO> confirmed = new ArrayList<>(images.size());
+        for (ProjectImage image : images) {
+            if (Boolean.TRUE.equals(image.getHero())) p.setHeroImageId(image.getId());
+            eventPublisher.publishEvent(new ImageStoredEvent(image.getId(), image.getS3Key()));
+        }
+        for (ProjectImage image : images) {
+            confirmed.add(DtoMapper.toImage(image, Objects.equals(p.getHeroImageId(), image.getId()), mediaStorage::toCdnUrl));
+        }
+        publishChange(p, ProjectChangedEvent.Type.IMAGES_CHANGED);
+        return confirmed;
+    }
+
+    /**
+     * Content-addressed blobs lose one reference each and are deleted with their last one;
+     * other objects (presigned uploads) are deleted outright, variants included.
+     */
+    private void releaseMedia(List<String> s3Keys) {
+        List<String> blobs = new ArrayList<>();
+        List<String> objects = new ArrayList<>();
+        for (String s3Key : s3Keys) {
+            if (BlobStore.isBlobKey(s3Key)) blobs.add(s3Key);
+            else objects.addAll(ImageVariant.allKeys(s3Key));
+        }
+        blobStore.release(blobs);
+        mediaOutbox.deleteObjects(objects);
+    }
+
+    /**
+     * Copies dimensions, placeholder and READY status from another image with the same
+     * blob, so re-uploaded bytes do not go through the variant pipeline again.
+     */
+    private void inheritVariants(List<ProjectImage> images) {
+        List<String> s3Keys = images.stream().map(ProjectImage::getS3Key).filter(BlobStore::isBlobKey).toList();
+        if (s3Keys.isEmpty()) return;
+        Map<String, ProjectImageRepository.VariantSourceRow> sources = new HashMap<>();
+        for (ProjectImageRepository.VariantSourceRow row
+                : projectImageRepository.findVariantSources(s3Keys, ImageVariantStatus.READY)) {
+            sources.putIfAbsent(row.getS3Key(), row);
+        }
+        for (ProjectImage image : images) {
+            ProjectImageRepository.VariantSourceRow source = sources.get(image.getS3Key());
+            if (source == null) continue;
+            image.setWidth(source.getWidth());
+            image.setHeight(source.getHeight());
+            image.setLqip(source.getLqip());
+            image.setVariantStatus(ImageVariantStatus.READY);
+        }
+    }
+
+    private static void checkConfirmedKey(Project p, String s3Key) {
+        if (s3Key == null || !s3Key.startsWith("projects/" + p.getCode() + "/"))
+            throw new BadRequestException(String.format("s3Key %s does not belong to this project", s3Key));
+    }
+
+    /** A presigned upload may never have happened; an image without its object would never get variants. */
+    private void checkUploaded(String s3Key) {
+        if (!mediaStorage.exists(s3Key))
+            throw new BadRequestException(String.format("s3Key %s has not been uploaded", s3Key));
+    }
+
+    private static ProjectImage confirmedImage(Project p, ProjectDTOs.ConfirmImageReq req) {
+        return ProjectImage.builder()
                 .project(p)
                 .s3Key(req.s3Key())
                 .mimeType(req.mimeType())
@@ -138,18 +520,6 @@ public class ProjectServiceImpl implements ProjectService {
                 .sortOrder(req.sortOrder() == null ? 0 : req.sortOrder())
                 .hero(Boolean.TRUE.equals(req.isHero()))
                 .build();
-        image = projectImageRepository.save(image);
-
-        if (Boolean.TRUE.equals(req.isHero())) p.setHeroImageId(image.getId());
-        return new ProjectDTOs.ImageDTO(
-                image.getId(),
-                mediaStorage.toCdnUrl(image.getS3Key()),
-                image.getMimeType(),
-                image.getWidth(),
-                image.getHeight(),
-                image.getSortOrder(),
-                Objects.equals(p.getHeroImageId(), image.getId())
-        );
     }
 
     @Override
@@ -161,9 +531,10 @@ public class ProjectServiceImpl implements ProjectService {
         ProjectImage image = projectImageRepository.findById(imageId)
                 .orElseThrow(() -> new NotFoundException(String.format("Image with id %d not found.", imageId)));
         if (!image.getProject().getId().equals(p.getId())) throw new BadRequestException("Image not in project.");
-        mediaStorage.deleteObject(image.getS3Key());
         projectImageRepository.delete(image);
+        releaseMedia(List.of(image.getS3Key()));
         if (Objects.equals(p.getHeroImageId(), imageId)) p.setHeroImageId(null);
+        publishChange(p, ProjectChangedEvent.Type.IMAGES_CHANGED);
     }
 
     @Override
@@ -177,16 +548,21 @@ public class ProjectServiceImpl implements ProjectService {
         if (!image.getProject().getId().equals(p.getId())) throw new BadRequestException("Image not in project.");
         p.setHeroImageId(imageId);
         image.setHero(true);
+        publishChange(p, ProjectChangedEvent.Type.IMAGES_CHANGED);
     }
 
+    /**
+     * Like {@link #uploadMultipleImages}: the bytes go to storage before the transaction and
+     * the re-store check after it, so no connection or blob row lock is held across network calls.
+     */
     @Override
-    @Transactional
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public ProjectDTOs.ImageDTO uploadImage(Long projectId, MultipartFile file, Boolean isHero, Integer sortOrder, String actor) {
         try {
             // Validate project exists
-            Project p = projectRepository.findById(projectId)
-                    .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
+            if (!projectRepository.existsById(projectId)) {
+                throw new NotFoundException(String.format("Project with id %d not found.", projectId));
+            }
 
             // Validate file
             if (file.isEmpty()) {
@@ -198,42 +574,24 @@ public class ProjectServiceImpl implements ProjectService {
                 throw new BadRequestException("Only image files (jpg, jpeg, png, webp) are allowed");
             }
 
-            // Generate S3 key
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String s3Key = String.format("projects/%s/images/%s%s", p.getCode(), UUID.randomUUID(), extension);
-
-            // Upload to S3 directly
-            mediaStorage.uploadObject(s3Key, file.getBytes(), file.getContentType());
-
-            // Create database record
-            ProjectImage image = ProjectImage.builder()
-                    .project(p)
-                    .s3Key(s3Key)
-                    .mimeType(file.getContentType())
-                    .sizeBytes(file.getSize())
-                    .sortOrder(sortOrder != null ? sortOrder : 0)
-                    .hero(Boolean.TRUE.equals(isHero))
-                    .build();
-
-            image = projectImageRepository.save(image);
-
-            // Set as hero image if requested
-            if (Boolean.TRUE.equals(isHero)) {
-                p.setHeroImageId(image.getId());
-                projectRepository.save(p);
+            // Content-addressed key; bytes already stored for another image are not sent again
+            String s3Key = BlobStore.contentKey(file);
+            if (blobStore.findStored(List.of(s3Key)).isEmpty()) {
+                // Stream to S3; the multipart body is spooled to disk, never fully on the heap
+                try (InputStream in = file.getInputStream()) {
+                    mediaStorage.uploadObject(s3Key, in, file.getSize(), file.getContentType());
+                }
             }
 
+            // Create database record
+            ParallelUploader.Upload upload = new ParallelUploader.Upload(s3Key, file, file.getSize(), file.getContentType());
+            List<ParallelUploader.Upload> fresh = new ArrayList<>();
+            List<ProjectDTOs.ImageDTO> saved = transactionTemplate.execute(status -> saveUploadedImages(projectId,
+                    List.of(upload), List.of(sortOrder != null ? sortOrder : 0), isHero, fresh));
+            if (!fresh.isEmpty()) blobStore.ensureStored(s3Key, file, file.getSize(), file.getContentType());
             log.info("Successfully uploaded image {} for project {}", s3Key, projectId);
 
-            return new ProjectDTOs.ImageDTO(
-                    image.getId(),
-                    mediaStorage.toCdnUrl(image.getS3Key()),
-                    image.getMimeType(),
-                    null, // width - would need image processing to get this
-                    null, // height - would need image processing to get this
-                    image.getSortOrder(),
-                    Objects.equals(p.getHeroImageId(), image.getId())
-            );
+            return saved.get(0);
 
         } catch (IOException e) {
             log.error("Error reading file for project {}", projectId, e);
@@ -244,14 +602,20 @@ public class ProjectServiceImpl implements ProjectService {
         }
     }
 
+    /**
+     * Puts all files to storage concurrently first, then records them in one short
+     * transaction, so no connection is held while bytes are in flight. Files whose bytes
+     * are already stored (or repeated within the batch) are not sent again. If the batch
+     * fails, the objects it sent are queued for deletion unless something references them.
+     */
     @Override
-    @Transactional
     @PreAuthorize("hasRole('" + ProjectRole.ADMIN + "')")
     public List<ProjectDTOs.ImageDTO> uploadMultipleImages(Long projectId, MultipartFile[] files, Boolean isHero, String actor) {
         try {
             // Validate project exists
-            Project p = projectRepository.findById(projectId)
-                    .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
+            if (!projectRepository.existsById(projectId)) {
+                throw new NotFoundException(String.format("Project with id %d not found.", projectId));
+            }
 
             // Validate files
             if (files == null || files.length == 0) {
@@ -262,13 +626,11 @@ public class ProjectServiceImpl implements ProjectService {
                 throw new BadRequestException("Maximum 10 files allowed per upload");
             }
 
-            List<ProjectDTOs.ImageDTO> uploadedImages = new ArrayList<>();
-            List<ProjectImage> savedImages = new ArrayList<>();
-
-            // Process each file
+            List<ParallelUploader.Upload> uploads = new ArrayList<>();
+            List<Integer> sortOrders = new ArrayList<>();
             for (int i = 0; i < files.length; i++) {
                 MultipartFile file = files[i];
-                
+
                 // Validate individual file
                 if (file.isEmpty()) {
                     log.warn("Skipping empty file at index {}", i);
@@ -281,60 +643,105 @@ public class ProjectServiceImpl implements ProjectService {
                     continue;
                 }
 
-                // Generate S3 key
-                String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                String s3Key = String.format("projects/%s/images/%s%s", p.getCode(), UUID.randomUUID(), extension);
-
-                // Upload to S3 directly
-                mediaStorage.uploadObject(s3Key, file.getBytes(), file.getContentType());
-
-                // Create database record
-                ProjectImage image = ProjectImage.builder()
-                        .project(p)
-                        .s3Key(s3Key)
-                        .mimeType(file.getContentType())
-                        .sizeBytes(file.getSize())
-                        .sortOrder(i) // Use index as sort order
-                        .hero(false) // Only first image can be hero if isHero is true
-                        .build();
-
-                image = projectImageRepository.save(image);
-                savedImages.add(image);
-
-                log.info("Successfully uploaded image {} for project {} (index {})", s3Key, projectId, i);
+                String s3Key;
+                try {
+                    s3Key = BlobStore.contentKey(file);
+                } catch (IOException e) {
+                    throw new BadRequestException("Error reading file: " + e.getMessage());
+                }
+                uploads.add(new ParallelUploader.Upload(s3Key, file, file.getSize(), file.getContentType()));
+                sortOrders.add(i); // Use index as sort order
             }
+            if (uploads.isEmpty()) return List.of();
 
-            // Set first image as hero if requested
-            if (Boolean.TRUE.equals(isHero) && !savedImages.isEmpty()) {
-                ProjectImage firstImage = savedImages.get(0);
-                firstImage.setHero(true);
-                projectImageRepository.save(firstImage);
-                p.setHeroImageId(firstImage.getId());
-                projectRepository.save(p);
+            Set<String> stored = blobStore.findStored(uploads.stream().map(ParallelUploader.Upload::key).toList());
+            Map<String, ParallelUploader.Upload> missing = new LinkedHashMap<>();
+            for (ParallelUploader.Upload upload : uploads) {
+                if (!stored.contains(upload.key())) missing.putIfAbsent(upload.key(), upload);
             }
-
-            // Build response DTOs
-            for (ProjectImage image : savedImages) {
-                uploadedImages.add(new ProjectDTOs.ImageDTO(
-                        image.getId(),
-                        mediaStorage.toCdnUrl(image.getS3Key()),
-                        image.getMimeType(),
-                        null, // width - would need image processing to get this
-                        null, // height - would need image processing to get this
-                        image.getSortOrder(),
-                        Objects.equals(p.getHeroImageId(), image.getId())
-                ));
+            List<ParallelUploader.Upload> fresh = new ArrayList<>();
+            List<ProjectDTOs.ImageDTO> uploadedImages;
+            try {
+                parallelUploader.uploadAll(new ArrayList<>(missing.values()));
+                uploadedImages = transactionTemplate.execute(status ->
+                        saveUploadedImages(projectId, uploads, sortOrders, isHero, fresh));
+            } catch (RuntimeException e) {
+                discardUploads(projectId, missing.keySet());
+                throw e;
             }
-
-            log.info("Successfully uploaded {} images for project {}", uploadedImages.size(), projectId);
+            for (ParallelUploader.Upload upload : fresh) {
+                blobStore.ensureStored(upload.key(), upload.source(), upload.length(), upload.contentType());
+            }
+            log.info("Uploaded {} images for project {}, {} transferred", uploads.size(), projectId, missing.size());
             return uploadedImages;
-
         } catch (IOException e) {
-            log.error("Error reading files for project {}", projectId, e);
-            throw new BadRequestException("Error reading files: " + e.getMessage());
-        } catch (Exception e) {
+            log.error("Error re-storing images for project {}", projectId, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
             log.error("Error uploading multiple images for project {}", projectId, e);
-            throw new RuntimeException("Failed to upload images: " + e.getMessage(), e);
+            throw e;
         }
     }
+
+    /**
+     * Queues the objects a failed batch may have stored; the dispatcher keeps any that another
+     * upload has referenced meanwhile. A failure here only leaves them to the orphan reconciler.
+     */
+    private void discardUploads(Long projectId, Collection<String> s3Keys) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> blobStore.discard(s3Keys));
+        } catch (RuntimeException e) {
+            log.warn("Could not queue {} objects of a failed upload for project {} for deletion", s3Keys.size(), projectId, e);
+        }
+    }
+
+    /** Adds {@code uploads} whose blob has no other reference to {@code fresh}; see {@link BlobStore#acquire}. */
+    private List<ProjectDTOs.ImageDTO> saveUploadedImages(Long projectId, List<ParallelUploader.Upload> uploads,
+                                                          List<Integer> sortOrders, Boolean isHero,
+                                                          List<ParallelUploader.Upload> fresh) {
+        Project p = projectRepository.findById(projectId)
+                .orElseThrow(() -> new NotFoundException(String.format("Project with id %d not found.", projectId)));
+        List<ProjectImage> savedImages = new ArrayList<>(uploads.size());
+        for (int i = 0; i < uploads.size(); i++) {
+            ParallelUploader.Upload upload = uploads.get(i);
+            savedImages.add(ProjectImage.builder()
+                    .project(p)
+                    .s3Key(upload.key())
+                    .mimeType(upload.contentType())
+                    .sizeBytes(upload.length())
+                    .sortOrder(sortOrders.get(i))
+                    // Only first image can be hero if isHero is true
+                    .hero(i == 0 && Boolean.TRUE.equals(isHero))
+                    .build());
+        }
+        // Blob rows stay locked until commit; taking them in key order keeps overlapping batches from deadlocking.
+        List<ParallelUploader.Upload> byKey = new ArrayList<>(uploads);
+        byKey.sort(Comparator.comparing(ParallelUploader.Upload::key));
+        for (ParallelUploader.Upload upload : byKey) {
+            if (blobStore.acquire(upload.key(), upload.contentType(), upload.length())) fresh.add(upload);
+        }
+        inheritVariants(savedImages);
+        savedImages = projectImageRepository.saveAll(savedImages);
+
+        // Set first image as hero if requested
+        if (Boolean.TRUE.equals(isHero)) p.setHeroImageId(savedImages.get(0).getId());
+
+        List<ProjectDTOs.ImageDTO> uploadedImages = new ArrayList<>(savedImages.size());
+        for (ProjectImage image : savedImages) {
+            uploadedImages.add(DtoMapper.toImage(image, Objects.equals(p.getHeroImageId(), image.getId()), mediaStorage::toCdnUrl));
+            if (image.getVariantStatus() == ImageVariantStatus.PENDING) {
+                eventPublisher.publishEvent(new ImageStoredEvent(image.getId(), image.getS3Key()));
+            }
+        }
+        publishChange(p, ProjectChangedEvent.Type.IMAGES_CHANGED);
+        return uploadedImages;
+    }
+
+    private static String normalizeCity(String city) {
+        return city == null || city.isBlank() ? null : city.trim();
+    }
+
+    private void publishChange(Project p, ProjectChangedEvent.Type type) {
+        eventPublisher.publishEvent(new ProjectChangedEvent(p.getId(), p.getCode(), p.getProjectStatus(), p.getCity(), type));
+    }
 }
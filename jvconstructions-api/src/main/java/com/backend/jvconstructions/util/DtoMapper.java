@@ -3,12 +3,22 @@ package com.backend.jvconstructions.util;
 import com.backend.jvconstructions.dto.ProjectDTOs;
 import com.backend.jvconstructions.entity.Project;
 import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ImageVariantStatus;
+import com.backend.jvconstructions.media.ImageVariant;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 public class DtoMapper {
     public static ProjectDTOs.ProjectDetailDTO toDetail(Project p, Function<String, String> cdn) {
+        return toDetail(p, p.getImages(), cdn);
+    }
+
+    /** Same as {@link #toDetail(Project, Function)} with the images supplied separately. */
+    public static ProjectDTOs.ProjectDetailDTO toDetail(Project p, List<ProjectImage> images, Function<String, String> cdn) {
         return new ProjectDTOs.ProjectDetailDTO(
                 p.getId(),
                 p.getCode(),
@@ -18,41 +28,103 @@ public class DtoMapper {
                 p.getProjectStatus(),
                 p.getStartDate(),
                 p.getEndDate(),
-                (p.getImages() != null ? p.getImages() : new ArrayList<ProjectImage>())
-                        .stream().sorted((a, b) -> {
+                toImages(images, cdn)
+        );
+    }
+
+    /** Detail built from a {@link ProjectRepository.DetailRow}; description and images are only what was loaded. */
+    public static ProjectDTOs.ProjectDetailDTO toDetail(ProjectRepository.DetailRow row, String description,
+                                                        List<ProjectImage> images, Function<String, String> cdn) {
+        return new ProjectDTOs.ProjectDetailDTO(
+                row.getId(),
+                row.getCode(),
+                row.getName(),
+                description,
+                row.getCity(),
+                row.getProjectStatus(),
+                row.getStartDate(),
+                row.getEndDate(),
+                toImages(images, cdn)
+        );
+    }
+
+    public static List<ProjectDTOs.ImageDTO> toImages(List<ProjectImage> images, Function<String, String> cdn) {
+        return (images != null ? images : new ArrayList<ProjectImage>())
+                .stream().sorted((a, b) -> {
                     int so = Integer.compare(nz(a.getSortOrder()), nz(b.getSortOrder()));
                     return so != 0 ? so : Long.compare(a.getId(), b.getId());
-                }).map(i -> new ProjectDTOs.ImageDTO(
-                        i.getId(),
-                        cdn.apply(i.getS3Key()),
-                        i.getMimeType(),
-                        i.getWidth(),
-                        i.getHeight(),
-                        nz(i.getSortOrder()),
-                        Boolean.TRUE.equals(i.getHero())
-                        )
-                ).toList()
+                }).map(i -> toImage(i, Boolean.TRUE.equals(i.getHero()), cdn))
+                .toList();
+    }
+
+    public static ProjectDTOs.ImageDTO toImage(ProjectImage i, boolean hero, Function<String, String> cdn) {
+        return new ProjectDTOs.ImageDTO(
+                i.getId(),
+                cdn.apply(i.getS3Key()),
+                i.getMimeType(),
+                i.getWidth(),
+                i.getHeight(),
+                nz(i.getSortOrder()),
+                hero,
+                toVariants(i.getS3Key(), i.getVariantStatus(), i.getLqip(), cdn)
+        );
+    }
+
+    public static ProjectDTOs.ImageVariantsDTO toVariants(String s3Key, ImageVariantStatus status, String lqip,
+                                                          Function<String, String> cdn) {
+        if (s3Key == null || status != ImageVariantStatus.READY) return null;
+        return new ProjectDTOs.ImageVariantsDTO(
+                cdn.apply(ImageVariant.THUMB.key(s3Key)),
+                cdn.apply(ImageVariant.CARD.key(s3Key)),
+                cdn.apply(ImageVariant.FULL.key(s3Key)),
+                lqip
         );
     }
 
     public static ProjectDTOs.ProjectCardDTO toCard(Project p, Function<String, String> cdn) {
-        String hero = null;
-        if (p.getHeroImageId() != null && p.getImages() != null) {
-            for (ProjectImage i : p.getImages()) {
+        return toCard(p, p.getImages(), cdn);
+    }
+
+    /** Same as {@link #toCard(Project, Function)} with the images (in sortOrder, id order) supplied separately. */
+    public static ProjectDTOs.ProjectCardDTO toCard(Project p, List<ProjectImage> images, Function<String, String> cdn) {
+        ProjectImage hero = null;
+        if (p.getHeroImageId() != null && images != null) {
+            for (ProjectImage i : images) {
                 if (i != null && i.getId() != null && i.getId().equals(p.getHeroImageId()) && i.getS3Key() != null) {
-                    hero = cdn.apply(i.getS3Key());
+                    hero = i;
                     break;
                 }
             }
         }
-        if (hero == null && p.getImages() != null && !p.getImages().isEmpty()) {
-            ProjectImage firstImage = p.getImages().get(0);
+        if (hero == null && images != null && !images.isEmpty()) {
+            ProjectImage firstImage = images.get(0);
             if (firstImage != null && firstImage.getS3Key() != null) {
-                hero = cdn.apply(firstImage.getS3Key());
+                hero = firstImage;
             }
         }
         return new ProjectDTOs.ProjectCardDTO(p.getId(), p.getCode(), p.getName(),
-                p.getCity(), p.getProjectStatus(), hero, p.getUpdatedAt());
+                p.getCity(), p.getProjectStatus(),
+                hero == null ? null : cdn.apply(hero.getS3Key()),
+                hero == null ? null : toVariants(hero.getS3Key(), hero.getVariantStatus(), hero.getLqip(), cdn),
+                p.getUpdatedAt());
+    }
+
+    /** Card from the projection; {@code firstImage} is only consulted when the row has no hero image. */
+    public static ProjectDTOs.ProjectCardDTO toCard(ProjectRepository.CardRow row, ProjectImageRepository.ImageKeyRow firstImage,
+                                                    Function<String, String> cdn) {
+        String s3Key = row.getHeroS3Key();
+        ImageVariantStatus status = row.getHeroVariantStatus();
+        String lqip = row.getHeroLqip();
+        if (s3Key == null && firstImage != null) {
+            s3Key = firstImage.getS3Key();
+            status = firstImage.getVariantStatus();
+            lqip = firstImage.getLqip();
+        }
+        return new ProjectDTOs.ProjectCardDTO(row.getId(), row.getCode(), row.getName(),
+                row.getCity(), row.getProjectStatus(),
+                s3Key == null ? null : cdn.apply(s3Key),
+                toVariants(s3Key, status, lqip, cdn),
+                row.getUpdatedAt());
     }
 
     private static int nz(Integer i) { return i == null ? 0 : i; }
@@ -0,0 +1,105 @@
+package com.backend.jvconstructions.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of an action per key for a time window, so repeating it with the
+ * same key inside the window returns the first result instead of running again.
+ *
+ * <p>The window is split into generations of {@code window / generations} each. Keys go
+ * into the newest generation and whole generations are dropped as they age out, so a key
+ * is remembered for between {@code window - window / generations} and {@code window}.
+ * Each generation holds at most {@code maxKeys / generations} keys; beyond that actions
+ * simply run, so memory stays bounded even under a flood of distinct keys.
+ *
+ * <p>Concurrent calls with the same key wait for the first one rather than running the
+ * action twice. If the action fails, the key is forgotten and the exception propagates to
+ * the caller that ran it; waiters then run the action themselves.
+ */
+public class DuplicateWindow<K, V> {
+
+    private final Clock clock;
+    private final long generationMillis;
+    private final int generations;
+    private final int maxKeysPerGeneration;
+    private final ArrayDeque<Map<K, CompletableFuture<V>>> window = new ArrayDeque<>();
+    private long currentStartedAt;
+
+    public DuplicateWindow(Duration window, int generations, long maxKeys, Clock clock) {
+        if (generations < 1 || window.toMillis() < generations) throw new IllegalArgumentException("Window too short for " + generations + " generations");
+        this.clock = clock;
+        this.generations = generations;
+        this.generationMillis = window.toMillis() / generations;
+        this.maxKeysPerGeneration = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxKeys / generations));
+        this.window.addFirst(new HashMap<>());
+        this.currentStartedAt = clock.millis();
+    }
+
+    /** Returns the remembered result for {@code key}, or runs {@code action} and remembers its result. */
+    public Result<V> get(K key, Supplier<V> action) {
+        CompletableFuture<V> existing;
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        synchronized (this) {
+            rotate();
+            existing = find(key);
+            if (existing == null) {
+                Map<K, CompletableFuture<V>> current = window.peekFirst();
+                if (current.size() < maxKeysPerGeneration) current.put(key, mine);
+            }
+        }
+        if (existing != null) {
+            try {
+                return new Result<>(existing.join(), true);
+            } catch (CompletionException e) {
+                // The first attempt failed; this one is on its own.
+                return new Result<>(action.get(), false);
+            }
+        }
+        try {
+            V value = action.get();
+            mine.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                for (Map<K, CompletableFuture<V>> generation : window) generation.remove(key, mine);
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Keys currently remembered. */
+    public synchronized int size() {
+        int size = 0;
+        for (Map<K, CompletableFuture<V>> generation : window) size += generation.size();
+        return size;
+    }
+
+    private CompletableFuture<V> find(K key) {
+        for (Map<K, CompletableFuture<V>> generation : window) {
+            CompletableFuture<V> value = generation.get(key);
+            if (value != null) return value;
+        }
+        return null;
+    }
+
+    private void rotate() {
+        long now = clock.millis();
+        long elapsed = (now - currentStartedAt) / generationMillis;
+        if (elapsed <= 0) return;
+        for (long i = 0; i < Math.min(elapsed, generations); i++) {
+            window.addFirst(new HashMap<>());
+            if (window.size() > generations) window.removeLast();
+        }
+        currentStartedAt += elapsed * generationMillis;
+    }
+
+    public record Result<V>(V value, boolean duplicate) {}
+}
@@ -0,0 +1,42 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (created_at DESC, id DESC)}.
+ * {@code backward} cursors page towards newer rows.
+ */
+public record KeysetCursor(Instant createdAt, Long id, boolean backward) {
+
+    public static KeysetCursor after(Instant createdAt, Long id) {
+        return new KeysetCursor(createdAt, id, false);
+    }
+
+    public static KeysetCursor before(Instant createdAt, Long id) {
+        return new KeysetCursor(createdAt, id, true);
+    }
+
+    public String encode() {
+        String raw = (backward ? "b" : "f") + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns null for a blank cursor, which means "first page". */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !(parts[0].equals("f") || parts[0].equals("b"))) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new KeysetCursor(Instant.parse(parts[1]), Long.parseLong(parts[2]), parts[0].equals("b"));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.exception.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Stores objects as files under {@code media.local.root}, for development, CI and
+ * on-prem installs without S3. Objects are served by {@code LocalMediaController}.
+ * Presigned PUTs are emulated with upload URLs carrying an HMAC-SHA256 signature over
+ * the key, content type, length and expiry.
+ */
+@Component
+@Profile("local-media")
+public class LocalFsMediaStorage implements MediaStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalFsMediaStorage.class);
+
+    private final Path root;
+    private final String baseUrl;
+    private final byte[] signingKey;
+    private final int expiry;
+    private final Clock clock;
+
+    @Autowired
+    public LocalFsMediaStorage(@Value("${media.local.root:./media-data}") String root,
+                               @Value("${media.local.publicBaseUrl:http://localhost:8082}") String publicBaseUrl,
+                               @Value("${media.local.signingSecret:}") String signingSecret,
+                               @Value("${media.s3.presignExpirySeconds:300}") int expiry) {
+        this(Path.of(root), publicBaseUrl, signingSecret, expiry, Clock.systemUTC());
+    }
+
+    LocalFsMediaStorage(Path root, String publicBaseUrl, String signingSecret, int expiry, Clock clock) {
+        try {
+            this.root = Files.createDirectories(root).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create media root " + root, e);
+        }
+        this.baseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+        if (signingSecret == null || signingSecret.isBlank()) {
+            // Upload URLs then only stay valid until the next restart, which is fine locally.
+            log.warn("media.local.signingSecret is not set; using a random secret");
+            this.signingKey = new byte[32];
+            new SecureRandom().nextBytes(this.signingKey);
+        } else {
+            this.signingKey = signingSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.expiry = expiry;
+        this.clock = clock;
+    }
+
+    /** The file behind {@code key}; keys that would escape the root are rejected. */
+    public Path resolve(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("\\"))
+            throw new BadRequestException(String.format("Invalid media key %s", key));
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root))
+            throw new BadRequestException(String.format("Invalid media key %s", key));
+        return path;
+    }
+
+    @Override
+    public ProjectDTOs.PresignedUrlResponse createPresignedPut(String key, String mime, long size) {
+        resolve(key);
+        long expires = clock.instant().getEpochSecond() + expiry;
+        String url = baseUrl + "/media-uploads/" + encodePath(key)
+                + "?ct=" + URLEncoder.encode(mime, StandardCharsets.UTF_8)
+                + "&len=" + size
+                + "&expires=" + expires
+                + "&sig=" + signature(key, mime, size, expires);
+        return new ProjectDTOs.PresignedUrlResponse(url, "PUT", Map.of("Content-Type", mime), expiry, key);
+    }
+
+    /** Whether an upload URL was issued by {@link #createPresignedPut} for exactly these values and is still valid. */
+    public boolean verifyUpload(String key, String contentType, long length, long expires, String signature) {
+        if (expires < clock.instant().getEpochSecond()) return false;
+        byte[] expected = signature(key, contentType, length, expires).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(String key, String contentType, long length, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingKey, "HmacSHA256"));
+            String canonical = "PUT\n" + key + "\n" + contentType + "\n" + length + "\n" + expires;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static String encodePath(String key) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : key.split("/")) {
+            segments.add(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return String.join("/", segments);
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + key, e);
+        }
+    }
+
+    @Override
+    public List<String> deleteObjects(Collection<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                deleteObject(key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete {}", key, e);
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public String toCdnUrl(String key) {
+        return baseUrl + "/media/" + encodePath(key);
+    }
+
+    @Override
+    public void uploadObject(String key, byte[] data, String contentType) {
+        uploadObject(key, new ByteArrayInputStream(data), data.length, contentType);
+    }
+
+    /**
+     * Writes to a temporary file next to the target and moves it into place, so readers
+     * never see a partial object.
+     */
+    @Override
+    public void uploadObject(String key, InputStream data, long length, String contentType) {
+        Path target = resolve(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 ReadableByteChannel in = Channels.newChannel(data)) {
+                long position = 0;
+                while (position < length) {
+                    long n = out.transferFrom(in, position, length - position);
+                    if (n <= 0) throw new EOFException("Upload stream ended " + (length - position) + " bytes early");
+                    position += n;
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Error storing object: key={}", key, e);
+            throw new UncheckedIOException("Failed to store " + key, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("Could not remove temporary file {}", tmp, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public InputStream openObject(String key) {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public Optional<Instant> lastModified(String key) {
+        try {
+            return Optional.of(Files.getLastModifiedTime(resolve(key)).toInstant());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + key, e);
+        }
+    }
+
+    /** Walks the whole tree for every page; fine for the data sizes this storage is meant for. */
+    @Override
+    public List<StoredObject> listObjects(String startAfter, int maxKeys) {
+        TreeMap<String, Path> page = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith(".upload-"))
+                    .forEach(path -> {
+                        String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+                        if (startAfter != null && key.compareTo(startAfter) <= 0) return;
+                        page.put(key, path);
+                        if (page.size() > maxKeys) page.pollLastEntry();
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + root, e);
+        }
+        List<StoredObject> objects = new ArrayList<>(page.size());
+        for (Map.Entry<String, Path> entry : page.entrySet()) {
+            try {
+                objects.add(new StoredObject(entry.getKey(), Files.getLastModifiedTime(entry.getValue()).toInstant()));
+            } catch (IOException e) {
+                // Deleted while listing.
+            }
+        }
+        return objects;
+    }
+}
@@ -2,9 +2,42 @@ package com.backend.jvconstructions.util;
 
 import com.backend.jvconstructions.dto.ProjectDTOs;
 
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface MediaStorage {
+
+    record StoredObject(String key, Instant lastModified) {}
+
     ProjectDTOs.PresignedUrlResponse createPresignedPut(String key, String mime, long size);
     void deleteObject(String key);
+
+    /** Deletes keys in as few requests as possible; returns the keys that could not be deleted. */
+    List<String> deleteObjects(Collection<String> keys);
     String toCdnUrl(String key);
+
+    /**
+     * Changes whenever URLs returned by {@link #toCdnUrl} change (signed URLs roll over),
+     * so holders of pre-built DTOs know to rebuild them.
+     */
+    default long cdnUrlEpoch() {
+        return 0;
+    }
     void uploadObject(String key, byte[] data, String contentType);
+
+    /** Uploads exactly {@code length} bytes from {@code data} without buffering the whole object. */
+    void uploadObject(String key, InputStream data, long length, String contentType);
+
+    InputStream openObject(String key);
+
+    boolean exists(String key);
+
+    /** When the object was last written, or empty if there is none. */
+    Optional<Instant> lastModified(String key);
+
+    /** Up to {@code maxKeys} objects in key order, strictly after {@code startAfter} (null for the first page). */
+    List<StoredObject> listObjects(String startAfter, int maxKeys);
 }
@@ -0,0 +1,84 @@
+package com.backend.jvconstructions.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of equally sized byte buffers shared by all uploads. Buffers are allocated
+ * lazily up to {@code maxBuffers}; once all are out, {@link #acquire} waits. Upload heap
+ * is therefore capped at {@code maxBuffers * bufferSize} in total, and at one buffer per
+ * upload since parts are sent one at a time.
+ */
+public class PartBufferPool {
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final long acquireTimeoutMs;
+    private final BlockingQueue<byte[]> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    public PartBufferPool(int bufferSize, int maxBuffers, long acquireTimeoutMs) {
+        if (bufferSize <= 0 || maxBuffers <= 0) throw new IllegalArgumentException("Buffer size and count must be positive");
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = free.poll();
+        if (buffer == null && allocated.incrementAndGet() <= maxBuffers) {
+            buffer = new byte[bufferSize];
+        } else if (buffer == null) {
+            allocated.decrementAndGet();
+            try {
+                buffer = free.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an upload buffer", e);
+            }
+            if (buffer == null) throw new IllegalStateException("No upload buffer free within " + acquireTimeoutMs + " ms");
+        }
+        inUse.incrementAndGet();
+        return buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) return;
+        inUse.decrementAndGet();
+        free.offer(buffer);
+    }
+
+    public int inUse() {
+        return inUse.get();
+    }
+
+    /** Heap held by the pool right now, in use or idle. */
+    public long allocatedBytes() {
+        return (long) Math.min(allocated.get(), maxBuffers) * bufferSize;
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        Gauge.builder(name + ".buffers.in_use", this, PartBufferPool::inUse)
+                .description("Upload part buffers currently held by uploads")
+                .register(registry);
+        Gauge.builder(name + ".buffers.allocated.bytes", this, PartBufferPool::allocatedBytes)
+                .description("Heap allocated for upload part buffers")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder(name + ".buffers.max.bytes", this, pool -> (double) pool.maxBuffers * pool.bufferSize)
+                .description("Upper bound on heap used by upload part buffers")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
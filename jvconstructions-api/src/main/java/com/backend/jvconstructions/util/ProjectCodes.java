@@ -0,0 +1,18 @@
+package com.backend.jvconstructions.util;
+
+import java.util.Locale;
+
+/**
+ * Project codes are unique and looked up case-insensitively by MySQL's default collation,
+ * so {@code abc-1} finds {@code ABC-1}. In-memory maps of codes key on {@link #key} to
+ * agree with the database.
+ */
+public final class ProjectCodes {
+
+    private ProjectCodes() {
+    }
+
+    public static String key(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+}
@@ -5,26 +5,48 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
+@Profile("!local-media")
 @RequiredArgsConstructor
 public class S3MediaStorage implements MediaStorage {
 
     private static final Logger log = LoggerFactory.getLogger(S3MediaStorage.class);
+    private static final int MAX_DELETE_BATCH = 1000;
 
     private final S3Presigner presigner;
     private final S3Client s3;
+    private final Optional<CloudFrontUrlSigner> urlSigner;
+    private final PartBufferPool uploadBuffers;
 
     @Value("${media.s3.bucket}") String bucket;
     @Value("${media.s3.cdnDomain}") String cdnDomain;
@@ -75,11 +97,37 @@ public class S3MediaStorage implements MediaStorage {
         s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
     }
 
+    /** DeleteObjects in quiet mode, up to 1000 keys per request; only failures are reported back. */
+    @Override
+    public List<String> deleteObjects(Collection<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        List<String> failed = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_DELETE_BATCH) {
+            List<ObjectIdentifier> batch = all.subList(from, Math.min(from + MAX_DELETE_BATCH, all.size())).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            DeleteObjectsResponse response = s3.deleteObjects(b -> b
+                    .bucket(bucket)
+                    .delete(d -> d.objects(batch).quiet(true)));
+            for (S3Error error : response.errors()) {
+                log.warn("Failed to delete {}: {} {}", error.key(), error.code(), error.message());
+                failed.add(error.key());
+            }
+        }
+        return failed;
+    }
+
     @Override
     public String toCdnUrl(String key) {
+        if (urlSigner.isPresent()) return urlSigner.get().sign(key);
         return "https://" + cdnDomain + "/" + key;
     }
 
+    @Override
+    public long cdnUrlEpoch() {
+        return urlSigner.map(CloudFrontUrlSigner::epoch).orElse(0L);
+    }
+
     @Override
     public void uploadObject(String key, byte[] data, String contentType) {
         try {
@@ -101,4 +149,109 @@ public class S3MediaStorage implements MediaStorage {
             throw new RuntimeException("Failed to upload object to S3: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Streams the body without holding it in memory. Bodies up to one part go out as a
+     * single PUT read straight from the stream; larger ones as a multipart upload, each
+     * part staged in a pooled buffer that is reused for the next part.
+     */
+    @Override
+    public void uploadObject(String key, InputStream data, long length, String contentType) {
+        try {
+            log.info("Streaming object to S3: key={}, size={}, contentType={}", key, length, contentType);
+            if (length <= uploadBuffers.bufferSize()) {
+                PutObjectRequest putRequest = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(length)
+                        .acl(ObjectCannedACL.PRIVATE)
+                        .build();
+                s3.putObject(putRequest, RequestBody.fromInputStream(data, length));
+            } else {
+                multipartUpload(key, data, length, contentType);
+            }
+            log.info("Successfully uploaded object to S3: {}", key);
+        } catch (Exception e) {
+            log.error("Error uploading object to S3: key={}", key, e);
+            throw new RuntimeException("Failed to upload object to S3: " + e.getMessage(), e);
+        }
+    }
+
+    private void multipartUpload(String key, InputStream data, long length, String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(b -> b
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .acl(ObjectCannedACL.PRIVATE)
+        ).uploadId();
+        byte[] buffer = uploadBuffers.acquire();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long remaining = length;
+            while (remaining > 0) {
+                int size = (int) Math.min(buffer.length, remaining);
+                if (data.readNBytes(buffer, 0, size) != size) {
+                    throw new EOFException("Upload stream ended " + remaining + " bytes early");
+                }
+                int partNumber = parts.size() + 1;
+                // The provider re-reads the same buffer if the SDK retries the part.
+                String eTag = s3.uploadPart(b -> b
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) size),
+                        RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, size), size, contentType)
+                ).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                remaining -= size;
+            }
+            s3.completeMultipartUpload(b -> b
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (IOException | RuntimeException e) {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+            throw e;
+        } finally {
+            uploadBuffers.release(buffer);
+        }
+    }
+
+    @Override
+    public InputStream openObject(String key) {
+        return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<Instant> lastModified(String key) {
+        try {
+            return Optional.of(s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).lastModified());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<StoredObject> listObjects(String startAfter, int maxKeys) {
+        ListObjectsV2Response response = s3.listObjectsV2(b -> b
+                .bucket(bucket)
+                .startAfter(startAfter)
+                .maxKeys(maxKeys));
+        return response.contents().stream()
+                .map(object -> new StoredObject(object.key(), object.lastModified()))
+                .toList();
+    }
 }
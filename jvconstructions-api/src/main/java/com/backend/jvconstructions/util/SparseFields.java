@@ -0,0 +1,61 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Field selection from a {@code fields=a,b,c} request parameter, validated against
+ * the components of the DTO record it applies to. An absent parameter selects everything.
+ */
+public final class SparseFields {
+
+    private static final SparseFields ALL = new SparseFields(null);
+
+    private final Set<String> names;
+
+    private SparseFields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static SparseFields all() {
+        return ALL;
+    }
+
+    public static SparseFields parse(String fields, Class<? extends Record> type) {
+        if (fields == null || fields.isBlank()) return ALL;
+        Set<String> known = Arrays.stream(type.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toSet());
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!known.contains(name)) throw new BadRequestException(String.format("Unknown field %s", name));
+            names.add(name);
+        }
+        return names.isEmpty() ? ALL : new SparseFields(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+
+    /** The DTO itself when everything is selected, otherwise a JSON object holding only the selected fields. */
+    public Object apply(Object dto, ObjectMapper objectMapper) {
+        if (names == null || dto == null) return dto;
+        ObjectNode node = objectMapper.valueToTree(dto);
+        node.retain(names);
+        return node;
+    }
+}
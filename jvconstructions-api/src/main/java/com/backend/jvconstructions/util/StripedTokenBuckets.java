@@ -0,0 +1,143 @@
+package com.backend.jvconstructions.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by client, all with the same capacity and refill rate. Keys are
+ * spread over independently locked stripes, each an access-ordered map, so threads only
+ * contend when their keys share a stripe. Every stripe holds at most
+ * {@code maxKeys / stripes} buckets and drops the least recently used one beyond that;
+ * a dropped bucket comes back full, which only errs in the client's favour.
+ */
+public class StripedTokenBuckets {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    public StripedTokenBuckets(int stripes, long maxKeys, double capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) throw new IllegalArgumentException("Capacity must be at least 1 and refill positive");
+        int n = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        int perStripe = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxKeys / n));
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new Stripe(perStripe);
+        this.mask = n - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1e9;
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket. Returns 0 when it was available, otherwise
+     * the nanoseconds until one will be; nothing is taken in that case.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        return tryAcquire(key, 1, nowNanos);
+    }
+
+    /** Like {@link #tryAcquire(String, long)}, taking {@code permits} tokens at once. */
+    public long tryAcquire(String key, double permits, long nowNanos) {
+        if (permits > capacity) throw new IllegalArgumentException("Cannot take more tokens than the capacity");
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.buckets.put(key, bucket);
+            }
+            double tokens = Math.min(capacity, bucket.tokens + (nowNanos - bucket.updatedAt) * tokensPerNano);
+            bucket.updatedAt = nowNanos;
+            if (tokens >= permits) {
+                bucket.tokens = tokens - permits;
+                return 0;
+            }
+            bucket.tokens = tokens;
+            return (long) Math.ceil((permits - tokens) / tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Gives back tokens taken by a request that was then not let through, up to the capacity. */
+    public void refund(String key, double permits) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) bucket.tokens = Math.min(capacity, bucket.tokens + permits);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops buckets untouched for {@code idleNanos} that have refilled completely, i.e.
+     * that a new bucket would replace exactly. Stripes are in access order, so each sweep
+     * stops at the first recently used bucket.
+     */
+    public int evictIdle(long nowNanos, long idleNanos) {
+        long fullAfter = (long) Math.ceil(capacity / tokensPerNano);
+        long threshold = Math.max(idleNanos, fullAfter);
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Bucket> it = stripe.buckets.values().iterator();
+                while (it.hasNext()) {
+                    if (nowNanos - it.next().updatedAt < threshold) break;
+                    it.remove();
+                    evicted++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    /** Buckets currently held; approximate while other threads are acquiring. */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.jvconstructions;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Base for JPA tests against MySQL. One container serves the whole test run. Its tables
+ * come from schema.sql, and Hibernate validates the entities against them, so a mapping
+ * the production schema does not have fails here. Test classes share the database, so
+ * the data tables are emptied before each class; the id sequence tables are kept.
+ * Extra properties go in {@code @TestPropertySource}.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS, statements = {
+        "delete from enquiries",
+        "delete from project_images",
+        "delete from projects",
+        "delete from services",
+        "delete from media_outbox",
+        "delete from media_blobs",
+        "delete from media_reconcile_checkpoints"
+})
+public abstract class MySqlTest {
+
+    // Started once and removed by Testcontainers when the JVM exits. The URL parameter matches application.yml.
+    protected static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    static {
+        mysql.start();
+        // schema.sql is not re-runnable (its ALTER TABLE adds a named constraint), so it runs once here.
+        new ResourceDatabasePopulator(new FileSystemResource("schema.sql"))
+                .execute(new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword()));
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.config.CacheConfig;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectCacheInvalidatorTest {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.PROJECT_LIST, CacheConfig.PROJECT_DETAIL_RESPONSES);
+    private final Cache list = cacheManager.getCache(CacheConfig.PROJECT_LIST);
+    private final Cache responses = cacheManager.getCache(CacheConfig.PROJECT_DETAIL_RESPONSES);
+    private final ProjectCacheInvalidator invalidator = new ProjectCacheInvalidator(cacheManager);
+
+    @Test
+    void aChangeEvictsItsResponseUnderAnySpellingAndClearsTheList() {
+        responses.put("LAKE", "lake body");
+        responses.put("HILL", "hill body");
+        list.put("UNDER_CONSTRUCTION:Pune:page 0", "cards");
+
+        invalidator.onProjectChanged(new ProjectChangedEvent(1L, "Lake", ProjectStatus.COMPLETED, "Pune",
+                ProjectChangedEvent.Type.UPDATED));
+
+        assertThat(responses.get("LAKE")).isNull();
+        assertThat(responses.get("HILL")).isNotNull();
+        assertThat(list.get("UNDER_CONSTRUCTION:Pune:page 0")).isNull();
+    }
+
+    @Test
+    void aChangeWithoutACodeStillClearsTheList() {
+        responses.put("LAKE", "lake body");
+        list.put("all", "cards");
+
+        invalidator.onProjectChanged(new ProjectChangedEvent(1L, null, ProjectStatus.COMPLETED, "Pune",
+                ProjectChangedEvent.Type.DELETED));
+
+        assertThat(responses.get("LAKE")).isNotNull();
+        assertThat(list.get("all")).isNull();
+    }
+
+    @Test
+    void anImportEvictsEveryImportedCode() {
+        responses.put("LAKE", "lake body");
+        responses.put("HILL", "hill body");
+        responses.put("RIVER", "river body");
+        list.put("all", "cards");
+
+        invalidator.onProjectsImported(new ProjectsImportedEvent(List.of(
+                new ProjectsImportedEvent.Imported(1L, "lake", ProjectStatus.COMPLETED, "Pune"),
+                new ProjectsImportedEvent.Imported(2L, "Hill", ProjectStatus.UNDER_CONSTRUCTION, "Nashik"))));
+
+        assertThat(responses.get("LAKE")).isNull();
+        assertThat(responses.get("HILL")).isNull();
+        assertThat(responses.get("RIVER")).isNotNull();
+        assertThat(list.get("all")).isNull();
+    }
+
+    @Test
+    void runsAfterTheReadModel() throws NoSuchMethodException {
+        for (Class<?> event : List.of(ProjectChangedEvent.class, ProjectsImportedEvent.class)) {
+            String listener = event == ProjectChangedEvent.class ? "onProjectChanged" : "onProjectsImported";
+            assertThat(order(ProjectCacheInvalidator.class, listener, event))
+                    .as(listener)
+                    .isGreaterThan(order(ProjectReadModel.class, listener, event));
+        }
+    }
+
+    private static int order(Class<?> type, String method, Class<?> event) throws NoSuchMethodException {
+        Order order = AnnotationUtils.findAnnotation(type.getMethod(method, event), Order.class);
+        assertThat(order).as("%s.%s is ordered", type.getSimpleName(), method).isNotNull();
+        return order.value();
+    }
+}
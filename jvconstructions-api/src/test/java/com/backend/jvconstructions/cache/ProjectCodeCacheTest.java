@@ -0,0 +1,71 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectCodeCacheTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectCodeCache cache = new ProjectCodeCache(projectRepository, 100, 600);
+
+    @Test
+    void spellingsOfOneCodeShareAnEntry() {
+        when(projectRepository.findIdByCode(anyString())).thenReturn(Optional.of(7L));
+
+        assertThat(cache.idOf("lake-view")).contains(7L);
+        assertThat(cache.idOf("LAKE-VIEW")).contains(7L);
+        assertThat(cache.idOf("Lake-View")).contains(7L);
+
+        verify(projectRepository, times(1)).findIdByCode(anyString());
+    }
+
+    @Test
+    void unknownCodesAreNotCached() {
+        when(projectRepository.findIdByCode("lake-view")).thenReturn(Optional.empty(), Optional.of(7L));
+
+        assertThat(cache.idOf("lake-view")).isEmpty();
+        // Created meanwhile, possibly on another instance.
+        assertThat(cache.idOf("lake-view")).contains(7L);
+    }
+
+    @Test
+    void deletingUnderAnotherSpellingEvicts() {
+        when(projectRepository.findIdByCode(anyString())).thenReturn(Optional.of(7L), Optional.empty());
+        assertThat(cache.idOf("lake-view")).contains(7L);
+
+        cache.onProjectChanged(new ProjectChangedEvent(7L, "LAKE-VIEW", null, null, ProjectChangedEvent.Type.DELETED));
+
+        assertThat(cache.idOf("lake-view")).isEmpty();
+    }
+
+    @Test
+    void updatesKeepTheEntry() {
+        when(projectRepository.findIdByCode(anyString())).thenReturn(Optional.of(7L));
+        cache.idOf("lake-view");
+
+        cache.onProjectChanged(new ProjectChangedEvent(7L, "lake-view", null, null, ProjectChangedEvent.Type.UPDATED));
+        cache.idOf("lake-view");
+
+        verify(projectRepository, times(1)).findIdByCode(anyString());
+    }
+
+    @Test
+    void staleIdsCanBeEvictedById() {
+        when(projectRepository.findIdByCode(anyString())).thenReturn(Optional.of(7L), Optional.empty());
+        cache.idOf("lake-view");
+
+        cache.evictId(7L);
+
+        assertThat(cache.idOf("lake-view")).isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package com.backend.jvconstructions.cache;
+
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectReadModelTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectReadModel readModel = new ProjectReadModel(projectRepository,
+            mock(ProjectImageRepository.class), mock(MediaStorage.class), mock(PlatformTransactionManager.class), true);
+
+    @Test
+    void eventsReplaceAndRemoveProjectsInANewSnapshot() {
+        when(projectRepository.findAll()).thenReturn(
+                List.of(project(1L, "lake-view", "Lake View"), project(2L, "garden-court", "Garden Court")));
+        readModel.warmUp();
+        ProjectReadModel.Snapshot before = readModel.snapshot();
+
+        rows(project(1L, "lake-view", "Lake View Villas"));
+        readModel.onProjectChanged(event(1L, "lake-view", ProjectChangedEvent.Type.UPDATED));
+        readModel.onProjectChanged(event(2L, "garden-court", ProjectChangedEvent.Type.DELETED));
+        ProjectReadModel.Snapshot after = readModel.snapshot();
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.detail("LAKE-VIEW")).map(ProjectDTOs.ProjectDetailDTO::name).contains("Lake View Villas");
+        assertThat(after.cardByCode("garden-court")).isEmpty();
+        assertThat(after.card(2L)).isEmpty();
+        assertThat(after.list(null, null, PageRequest.of(0, 10)).orElseThrow().getContent())
+                .extracting(ProjectDTOs.ProjectCardDTO::code).containsExactly("lake-view");
+        // Readers holding the old snapshot keep seeing it unchanged.
+        assertThat(before.detail("lake-view")).map(ProjectDTOs.ProjectDetailDTO::name).contains("Lake View");
+        assertThat(before.cardByCode("garden-court")).isPresent();
+    }
+
+    @Test
+    void createdProjectsAreAddedInNewestFirstOrder() {
+        when(projectRepository.findAll()).thenReturn(List.of(project(1L, "lake-view", "Lake View")));
+        readModel.warmUp();
+
+        rows(project(2L, "skyline", "Skyline"));
+        readModel.onProjectChanged(event(2L, "skyline", ProjectChangedEvent.Type.CREATED));
+
+        assertThat(readModel.snapshot().listByCursor(null, null, null, 10).items())
+                .extracting(ProjectDTOs.ProjectCardDTO::code).containsExactly("skyline", "lake-view");
+    }
+
+    @Test
+    void anImportIsLoadedWithOneQueryAndPublishedAsOneSnapshot() {
+        when(projectRepository.findAll()).thenReturn(List.of(project(1L, "lake-view", "Lake View")));
+        readModel.warmUp();
+        ProjectReadModel.Snapshot before = readModel.snapshot();
+
+        rows(project(2L, "skyline", "Skyline"), project(3L, "meadows", "Green Meadows"), project(4L, "harbour", "Harbour"));
+        readModel.onProjectsImported(new ProjectsImportedEvent(List.of(
+                imported(2L, "skyline"), imported(3L, "meadows"), imported(4L, "harbour"))));
+
+        verify(projectRepository).findAllById(List.of(2L, 3L, 4L));
+        verify(projectRepository, never()).findById(any());
+        assertThat(readModel.snapshot()).isNotSameAs(before);
+        assertThat(readModel.snapshot().listByCursor(null, null, null, 10).items())
+                .extracting(ProjectDTOs.ProjectCardDTO::code).containsExactly("harbour", "meadows", "skyline", "lake-view");
+    }
+
+    @Test
+    void changesDuringWarmUpAreReplayedBeforeTheSnapshotIsPublished() throws InterruptedException {
+        rows(project(1L, "lake-view", "Lake View Villas"), project(3L, "meadows", "Green Meadows"));
+        when(projectRepository.findAll()).thenAnswer(invocation -> {
+            // Committed while the bulk read runs; the read still returns the old rows.
+            readModel.onProjectChanged(event(1L, "lake-view", ProjectChangedEvent.Type.UPDATED));
+            readModel.onProjectChanged(event(2L, "garden-court", ProjectChangedEvent.Type.DELETED));
+            readModel.onProjectChanged(event(3L, "meadows", ProjectChangedEvent.Type.CREATED));
+            assertThat(readModel.snapshot()).isNull();
+            return List.of(project(1L, "lake-view", "Lake View"), project(2L, "garden-court", "Garden Court"));
+        });
+
+        readModel.startWarmUp();
+        ProjectReadModel.Snapshot snapshot = awaitSnapshot();
+
+        assertThat(snapshot.detail("lake-view")).map(ProjectDTOs.ProjectDetailDTO::name).contains("Lake View Villas");
+        assertThat(snapshot.detail("garden-court")).isEmpty();
+        assertThat(snapshot.detail("meadows")).isPresent();
+    }
+
+    @Test
+    void aFailedRefreshDropsTheSnapshotSoReadsGoToTheDatabase() {
+        when(projectRepository.findAll()).thenReturn(List.of(project(1L, "lake-view", "Lake View")));
+        readModel.warmUp();
+
+        when(projectRepository.findAllById(any())).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        // Also fails the reload the event triggers, so the model stays cold.
+        when(projectRepository.findAll()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        readModel.onProjectChanged(event(1L, "lake-view", ProjectChangedEvent.Type.UPDATED));
+
+        assertThat(readModel.snapshot()).isNull();
+    }
+
+    /** Rows the per-change loads see; ids not listed have been deleted. */
+    private void rows(Project... projects) {
+        Map<Long, Project> byId = new HashMap<>();
+        for (Project p : projects) byId.put(p.getId(), p);
+        when(projectRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Project> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (byId.containsKey(id)) found.add(byId.get(id));
+            }
+            return found;
+        });
+    }
+
+    private ProjectReadModel.Snapshot awaitSnapshot() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (readModel.snapshot() == null && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(readModel.snapshot()).isNotNull();
+        return readModel.snapshot();
+    }
+
+    private static Project project(Long id, String code, String name) {
+        return Project.builder()
+                .id(id)
+                .code(code)
+                .name(name)
+                .city("Pune")
+                .projectStatus(ProjectStatus.UNDER_CONSTRUCTION)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id))
+                .build();
+    }
+
+    private static ProjectChangedEvent event(Long id, String code, ProjectChangedEvent.Type type) {
+        return new ProjectChangedEvent(id, code, ProjectStatus.UNDER_CONSTRUCTION, "Pune", type);
+    }
+
+    private static ProjectsImportedEvent.Imported imported(Long id, String code) {
+        return new ProjectsImportedEvent.Imported(id, code, ProjectStatus.UNDER_CONSTRUCTION, "Pune");
+    }
+}
@@ -0,0 +1,185 @@
+package com.backend.jvconstructions.controller;
+
+import com.backend.jvconstructions.exception.GlobalExceptionHandler;
+import com.backend.jvconstructions.util.LocalFsMediaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocalMediaControllerTest {
+
+    private static final String KEY = "projects/lake/images/a.jpg";
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private LocalFsMediaStorage storage;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalFsMediaStorage(root.toString(), "http://media.test", "secret", 300);
+        LocalMediaController controller = new LocalMediaController(storage);
+        controller.cacheMaxAgeSeconds = 31536000;
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void parseRangeAcceptsOneRangeAndClampsItToTheFile() {
+        assertThat(LocalMediaController.parseRange("bytes=0-4", 10)).containsExactly(0, 4);
+        assertThat(LocalMediaController.parseRange("bytes=5-", 10)).containsExactly(5, 9);
+        assertThat(LocalMediaController.parseRange("bytes=-3", 10)).containsExactly(7, 9);
+        assertThat(LocalMediaController.parseRange("bytes=-30", 10)).containsExactly(0, 9);
+        assertThat(LocalMediaController.parseRange("bytes=8-99", 10)).containsExactly(8, 9);
+        assertThat(LocalMediaController.parseRange("bytes= 2 - 3 ", 10)).containsExactly(2, 3);
+    }
+
+    @Test
+    void parseRangeRejectsUnsatisfiableRangesAndIgnoresTheRest() {
+        assertThat(LocalMediaController.parseRange("bytes=10-", 10)).isEmpty();
+        assertThat(LocalMediaController.parseRange("bytes=-0", 10)).isEmpty();
+        assertThat(LocalMediaController.parseRange("bytes=-5", 0)).isEmpty();
+
+        assertThat(LocalMediaController.parseRange("bytes=0-1,4-5", 10)).isNull();
+        assertThat(LocalMediaController.parseRange("bytes=4-2", 10)).isNull();
+        assertThat(LocalMediaController.parseRange("bytes=a-b", 10)).isNull();
+        assertThat(LocalMediaController.parseRange("bytes=5", 10)).isNull();
+        assertThat(LocalMediaController.parseRange("items=0-4", 10)).isNull();
+    }
+
+    @Test
+    void servesTheWholeFileAsImmutable() throws Exception {
+        storage.uploadObject(KEY, DATA, "image/jpeg");
+
+        mvc.perform(get("/media/" + KEY))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(DATA))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, DATA.length))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void singleRangeIsAnswered206() throws Exception {
+        storage.uploadObject(KEY, DATA, "image/jpeg");
+
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(Arrays.copyOfRange(DATA, 2, 6)));
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=-2"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-9/10"))
+                .andExpect(content().bytes(Arrays.copyOfRange(DATA, 8, 10)));
+    }
+
+    @Test
+    void rangePastTheEndIsAnswered416() throws Exception {
+        storage.uploadObject(KEY, DATA, "image/jpeg");
+
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void rangeIsIgnoredWhenMalformedOrIfRangeIsStale() throws Exception {
+        storage.uploadObject(KEY, DATA, "image/jpeg");
+        String etag = mvc.perform(get("/media/" + KEY)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=0-1,4-5"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(DATA));
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(DATA));
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304() throws Exception {
+        storage.uploadObject(KEY, DATA, "image/jpeg");
+        String etag = mvc.perform(get("/media/" + KEY)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/media/" + KEY).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingFilesAndDirectoriesAreNotFound() throws Exception {
+        mvc.perform(get("/media/projects/lake/images/missing.jpg")).andExpect(status().isNotFound());
+        Files.createDirectories(root.resolve("projects/lake"));
+        mvc.perform(get("/media/projects/lake")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadWithAValidSignatureIsStored() throws Exception {
+        URI url = URI.create(storage.createPresignedPut(KEY, "image/jpeg", DATA.length).uploadUrl());
+
+        mvc.perform(put(url).contentType("image/jpeg").content(DATA))
+                .andExpect(status().isOk());
+
+        assertThat(Files.readAllBytes(storage.resolve(KEY))).isEqualTo(DATA);
+    }
+
+    @Test
+    void uploadIsRefusedWhenTheUrlWasNotIssuedForIt() throws Exception {
+        String url = storage.createPresignedPut(KEY, "image/jpeg", DATA.length).uploadUrl();
+
+        // Signature of another key, a tampered size, and a forged signature.
+        mvc.perform(put(URI.create(url.replace("/a.jpg", "/b.jpg"))).contentType("image/jpeg").content(DATA))
+                .andExpect(status().isForbidden());
+        mvc.perform(put(URI.create(url.replace("len=10", "len=11"))).contentType("image/jpeg").content(DATA))
+                .andExpect(status().isForbidden());
+        mvc.perform(put(URI.create(url.replaceAll("sig=[^&]+", "sig=forged"))).contentType("image/jpeg").content(DATA))
+                .andExpect(status().isForbidden());
+
+        assertThat(Files.exists(storage.resolve(KEY))).isFalse();
+        assertThat(Files.exists(storage.resolve("projects/lake/images/b.jpg"))).isFalse();
+    }
+
+    @Test
+    void uploadBodyMustMatchTheSignedTypeAndLength() throws Exception {
+        URI url = URI.create(storage.createPresignedPut(KEY, "image/jpeg", DATA.length).uploadUrl());
+
+        mvc.perform(put(url).contentType("image/png").content(DATA))
+                .andExpect(status().isBadRequest());
+        mvc.perform(put(url).contentType("image/jpeg").content(Arrays.copyOf(DATA, 4)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(Files.exists(storage.resolve(KEY))).isFalse();
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.jvconstructions.controller;
+
+import com.backend.jvconstructions.cache.ProjectCacheInvalidator;
+import com.backend.jvconstructions.cache.ProjectResponseCache;
+import com.backend.jvconstructions.config.CacheConfig;
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.exception.GlobalExceptionHandler;
+import com.backend.jvconstructions.exception.NotFoundException;
+import com.backend.jvconstructions.search.ProjectFacetCounter;
+import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.SparseFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProjectControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ProjectService projectService = mock(ProjectService.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.PROJECT_LIST, CacheConfig.PROJECT_DETAIL_RESPONSES);
+    private final ProjectCacheInvalidator invalidator = new ProjectCacheInvalidator(cacheManager);
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new ProjectController(projectService,
+                    new ProjectResponseCache(projectService, objectMapper, cacheManager),
+                    mock(ProjectFacetCounter.class), objectMapper))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void servesThePreEncodedDetailWithAStrongETag() throws Exception {
+        ProjectDTOs.ProjectDetailDTO lake = detail("Lake View");
+        when(projectService.getByCode("lake")).thenReturn(lake);
+
+        MvcResult first = mvc.perform(get("/api/v1/projects/lake"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().contentType("application/json"))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(lake)))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"[A-Za-z0-9_-]{22}\"");
+
+        // Served from the cache under any spelling of the code.
+        mvc.perform(get("/api/v1/projects/LAKE"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(lake)));
+        verify(projectService, times(1)).getByCode(anyString());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304WithoutABody() throws Exception {
+        when(projectService.getByCode("lake")).thenReturn(detail("Lake View"));
+        String etag = mvc.perform(get("/api/v1/projects/lake")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/v1/projects/lake").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        mvc.perform(get("/api/v1/projects/lake").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void aChangeEvictsTheEncodedBody() throws Exception {
+        when(projectService.getByCode("lake")).thenReturn(detail("Lake View"));
+        String etag = mvc.perform(get("/api/v1/projects/lake")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ProjectDTOs.ProjectDetailDTO renamed = detail("Lake View Villas");
+        when(projectService.getByCode("lake")).thenReturn(renamed);
+        invalidator.onProjectChanged(new ProjectChangedEvent(1L, "Lake", ProjectStatus.COMPLETED, "Pune",
+                ProjectChangedEvent.Type.UPDATED));
+
+        mvc.perform(get("/api/v1/projects/lake").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(renamed)))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag));
+    }
+
+    @Test
+    void sparseFieldsetsAreEncodedPerRequestAndStillCarryAnETag() throws Exception {
+        when(projectService.getByCode(anyString(), any(SparseFields.class))).thenReturn(detail("Lake View"));
+
+        mvc.perform(get("/api/v1/projects/lake").param("fields", "name,city"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().json("{\"name\":\"Lake View\",\"city\":\"Pune\"}", true));
+        mvc.perform(get("/api/v1/projects/lake").param("fields", "name,city")).andExpect(status().isOk());
+
+        verify(projectService, times(2)).getByCode(anyString(), any(SparseFields.class));
+        verify(projectService, never()).getByCode(anyString());
+    }
+
+    @Test
+    void unknownFieldsAndCodesAreRejected() throws Exception {
+        when(projectService.getByCode("nowhere")).thenThrow(new NotFoundException("Project with code nowhere not found."));
+
+        mvc.perform(get("/api/v1/projects/lake").param("fields", "name,secret"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/projects/nowhere"))
+                .andExpect(status().isNotFound());
+        assertThat(cacheManager.getCache(CacheConfig.PROJECT_DETAIL_RESPONSES).get("NOWHERE")).isNull();
+    }
+
+    private static ProjectDTOs.ProjectDetailDTO detail(String name) {
+        return new ProjectDTOs.ProjectDetailDTO(1L, "lake", name, "By the lake", "Pune", ProjectStatus.COMPLETED,
+                LocalDate.of(2022, 1, 1), LocalDate.of(2024, 6, 30), List.of());
+    }
+}
@@ -0,0 +1,114 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnquiryDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fingerprintIgnoresCaseWhitespaceAndPhoneFormatting() {
+        EnquiryDTOs.CreateEnquiryRequest original =
+                request("lake", "Asha", "asha@example.com", "+91 98765-43210", "Is a 2BHK still available?");
+
+        assertThat(EnquiryDeduplicator.fingerprint(
+                request("LAKE", "Asha", "  Asha@Example.COM ", "919876543210", "is a  2bhk\n still AVAILABLE?  ")))
+                .isEqualTo(EnquiryDeduplicator.fingerprint(original));
+        // The name is not part of the fingerprint: a retyped name is still the same enquiry.
+        assertThat(EnquiryDeduplicator.fingerprint(
+                request("lake", "Asha K", "asha@example.com", "+91 98765-43210", "Is a 2BHK still available?")))
+                .isEqualTo(EnquiryDeduplicator.fingerprint(original));
+    }
+
+    @Test
+    void fingerprintSeparatesDifferentEnquiries() {
+        EnquiryDTOs.CreateEnquiryRequest original =
+                request("lake", "Asha", "asha@example.com", "9876543210", "Is a 2BHK still available?");
+
+        assertThat(EnquiryDeduplicator.fingerprint(request("hill", "Asha", "asha@example.com", "9876543210",
+                "Is a 2BHK still available?"))).isNotEqualTo(EnquiryDeduplicator.fingerprint(original));
+        assertThat(EnquiryDeduplicator.fingerprint(request("lake", "Asha", "asha@example.org", "9876543210",
+                "Is a 2BHK still available?"))).isNotEqualTo(EnquiryDeduplicator.fingerprint(original));
+        assertThat(EnquiryDeduplicator.fingerprint(request("lake", "Asha", "asha@example.com", "9876543211",
+                "Is a 2BHK still available?"))).isNotEqualTo(EnquiryDeduplicator.fingerprint(original));
+        assertThat(EnquiryDeduplicator.fingerprint(request("lake", "Asha", "asha@example.com", "9876543210",
+                "Is a 3BHK still available?"))).isNotEqualTo(EnquiryDeduplicator.fingerprint(original));
+        // Field boundaries are kept, so text cannot move from one field into the next.
+        assertThat(EnquiryDeduplicator.fingerprint(request("lake", "Asha", "asha@example.com", null, "hello")))
+                .isNotEqualTo(EnquiryDeduplicator.fingerprint(request("lakehello", "Asha", "asha@example.com", null, null)));
+    }
+
+    @Test
+    void repeatGetsTheFirstResponseAndIsCountedAsDuplicate() {
+        EnquiryDeduplicator dedup = new EnquiryDeduplicator(meterRegistry, true, 600, 10, 1000);
+        AtomicInteger accepted = new AtomicInteger();
+
+        EnquiryDTOs.EnquiryAcceptedDTO first = dedup.accept(
+                request("lake", "Asha", "asha@example.com", "9876543210", "Hello"), () -> accepted(accepted));
+        EnquiryDTOs.EnquiryAcceptedDTO repeat = dedup.accept(
+                request("Lake", "Asha", "ASHA@example.com", "98765 43210", " hello "), () -> accepted(accepted));
+        dedup.accept(request("lake", "Asha", "asha@example.com", "9876543210", "Another question"),
+                () -> accepted(accepted));
+
+        assertThat(repeat).isSameAs(first);
+        assertThat(accepted).hasValue(2);
+        assertThat(counted("duplicate")).isEqualTo(1);
+        assertThat(counted("new")).isEqualTo(2);
+        assertThat(meterRegistry.get("enquiries.dedup.entries").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void synchronousAndWriteBehindPathsAreTrackedSeparately() {
+        EnquiryDeduplicator dedup = new EnquiryDeduplicator(meterRegistry, true, 600, 10, 1000);
+        EnquiryDTOs.CreateEnquiryRequest req = request("lake", "Asha", "asha@example.com", "9876543210", "Hello");
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger accepted = new AtomicInteger();
+
+        dedup.create(req, () -> created(created));
+        dedup.accept(req, () -> accepted(accepted));
+
+        assertThat(created).hasValue(1);
+        assertThat(accepted).hasValue(1);
+        assertThat(counted("duplicate")).isZero();
+    }
+
+    @Test
+    void disabledDeduplicatorRunsEverySubmissionAndCountsNothing() {
+        EnquiryDeduplicator dedup = new EnquiryDeduplicator(meterRegistry, false, 600, 10, 1000);
+        EnquiryDTOs.CreateEnquiryRequest req = request("lake", "Asha", "asha@example.com", "9876543210", "Hello");
+        AtomicInteger created = new AtomicInteger();
+
+        dedup.create(req, () -> created(created));
+        dedup.create(req, () -> created(created));
+
+        assertThat(created).hasValue(2);
+        assertThat(counted("duplicate")).isZero();
+        assertThat(counted("new")).isZero();
+    }
+
+    private double counted(String result) {
+        return meterRegistry.get("enquiries.dedup").tag("result", result).counter().count();
+    }
+
+    private static EnquiryDTOs.EnquiryAcceptedDTO accepted(AtomicInteger calls) {
+        return new EnquiryDTOs.EnquiryAcceptedDTO("T-" + calls.incrementAndGet(), "RECEIVED", Instant.now());
+    }
+
+    private static EnquiryDTOs.EnquiryDTO created(AtomicInteger calls) {
+        int id = calls.incrementAndGet();
+        return new EnquiryDTOs.EnquiryDTO((long) id, "T-" + id, "lake", "Asha", "asha@example.com", "9876543210",
+                "Hello", "NEW", null, Instant.now());
+    }
+
+    private static EnquiryDTOs.CreateEnquiryRequest request(String projectCode, String name, String email,
+                                                            String phone, String message) {
+        return new EnquiryDTOs.CreateEnquiryRequest(projectCode, name, email, phone, message);
+    }
+}
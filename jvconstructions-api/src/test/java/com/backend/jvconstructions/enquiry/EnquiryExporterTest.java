@@ -0,0 +1,136 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EnquiryExporterTest {
+
+    private static final Instant FROM = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-02-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void quotesCsvFieldsAndDefusesFormulas() {
+        assertThat(EnquiryExporter.csvField(null, true)).isEmpty();
+        assertThat(EnquiryExporter.csvField("John Doe", true)).isEqualTo("John Doe");
+        assertThat(EnquiryExporter.csvField("Hi, \"call\" me\nsoon", true)).isEqualTo("\"Hi, \"\"call\"\" me\nsoon\"");
+        assertThat(EnquiryExporter.csvField("=HYPERLINK(\"x\")", true)).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(EnquiryExporter.csvField("+91-9876543210", false)).isEqualTo("+91-9876543210");
+    }
+
+    @Test
+    void queryWithoutFiltersHasNoConditions() {
+        EnquiryExporter.Query query = EnquiryExporter.query(new EnquiryDTOs.InboxFilter(null, null, null, null, null), null);
+
+        assertThat(query.sql()).endsWith("where 1 = 1 order by e.created_at desc, e.id desc");
+        assertThat(query.args()).isEmpty();
+    }
+
+    @Test
+    void queryHasOnlyTheFiltersInUseWithArgumentsInPlaceholderOrder() {
+        EnquiryExporter.Query query = EnquiryExporter.query(new EnquiryDTOs.InboxFilter("NEW", null, "lake", null, TO), 7L);
+
+        assertThat(query.sql()).contains("where 1 = 1 and e.status = ? and e.project_id = ? and e.created_at < ? order by");
+        assertThat(query.sql()).doesNotContain("assigned_to = ?", "created_at >= ?");
+        assertThat(query.args()).containsExactly("NEW", 7L, Timestamp.from(TO));
+    }
+
+    @Test
+    void queryWithEveryFilter() {
+        EnquiryExporter.Query query = EnquiryExporter.query(
+                new EnquiryDTOs.InboxFilter("CONTACTED", "admin@example.com", "lake", FROM, TO), 7L);
+
+        assertThat(query.sql()).contains("where 1 = 1 and e.status = ? and e.assigned_to = ? and e.project_id = ?"
+                + " and e.created_at >= ? and e.created_at < ? order by");
+        assertThat(query.args()).containsExactly("CONTACTED", "admin@example.com", 7L, Timestamp.from(FROM), Timestamp.from(TO));
+        assertThat(query.sql().chars().filter(c -> c == '?').count()).isEqualTo(query.args().size());
+    }
+
+    @Test
+    void ndjsonWritesOneTerminatedLinePerRow() throws IOException {
+        EnquiryDTOs.EnquiryDTO first = row(2L, "Line one\nline two");
+        EnquiryDTOs.EnquiryDTO second = row(1L, "Plain");
+        StringWriter out = new StringWriter();
+
+        EnquiryExporter.RowSink sink = EnquiryExporter.sink(EnquiryExporter.Format.NDJSON, objectMapper, out);
+        sink.write(first);
+        sink.write(second);
+        sink.finish();
+
+        String ndjson = out.toString();
+        assertThat(ndjson).endsWith("}\n").doesNotContain("\n\n");
+        List<EnquiryDTOs.EnquiryDTO> parsed = new ArrayList<>();
+        for (String line : ndjson.split("\n")) parsed.add(objectMapper.readValue(line, EnquiryDTOs.EnquiryDTO.class));
+        assertThat(parsed).containsExactly(first, second);
+    }
+
+    @Test
+    void emptyNdjsonExportIsEmpty() throws IOException {
+        StringWriter out = new StringWriter();
+
+        EnquiryExporter.sink(EnquiryExporter.Format.NDJSON, objectMapper, out).finish();
+
+        assertThat(out.toString()).isEmpty();
+    }
+
+    @Test
+    void csvStartsWithAHeaderAndEndsLinesWithCrLf() throws IOException {
+        StringWriter out = new StringWriter();
+
+        EnquiryExporter.RowSink sink = EnquiryExporter.sink(EnquiryExporter.Format.CSV, objectMapper, out);
+        sink.write(row(1L, "Hello"));
+        sink.finish();
+
+        assertThat(out.toString()).isEqualTo(
+                "id,trackingId,projectCode,name,email,phone,message,status,assignedTo,createdAt\r\n"
+                        + "1,t-1,lake,Jane,jane@example.com,+91 98765 43210,Hello,NEW,,2024-01-15T10:30:00Z\r\n");
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreRejectedUntilOneCompletes() {
+        EnquiryExporter exporter = new EnquiryExporter(mock(JdbcTemplate.class), objectMapper, Integer.MIN_VALUE, 1, 60_000);
+        WebAsyncManager first = WebAsyncUtils.getAsyncManager(new MockHttpServletRequest());
+
+        exporter.reserve(first);
+        assertThatThrownBy(() -> exporter.reserve(WebAsyncUtils.getAsyncManager(new MockHttpServletRequest())))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        CallableProcessingInterceptor slot = first.getCallableInterceptor(EnquiryExporter.ExportSlot.class.getName());
+        AsyncWebRequest asyncRequest = mock(AsyncWebRequest.class);
+        slot.beforeConcurrentHandling(asyncRequest, () -> null);
+        verify(asyncRequest).setTimeout(60_000L);
+
+        // Completion may be reported more than once; the slot is freed only once.
+        slot.afterCompletion(asyncRequest, () -> null);
+        slot.afterCompletion(asyncRequest, () -> null);
+        exporter.reserve(WebAsyncUtils.getAsyncManager(new MockHttpServletRequest()));
+        assertThatThrownBy(() -> exporter.reserve(WebAsyncUtils.getAsyncManager(new MockHttpServletRequest())))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private static EnquiryDTOs.EnquiryDTO row(Long id, String message) {
+        return new EnquiryDTOs.EnquiryDTO(id, "t-" + id, "lake", "Jane", "jane@example.com", "+91 98765 43210",
+                message, "NEW", null, Instant.parse("2024-01-15T10:30:00Z"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.repository.EnquiryRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.service.impl.EnquiryServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Submits the same load through the synchronous create and through write-behind and
+ * reports throughput and p99 latency as seen by the submitters. Tagged out of the default
+ * test run, since it needs Docker and takes a while: {@code ./gradlew benchmarkTest}.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+class EnquiryIngestBenchmarkTest extends MySqlTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnquiryIngestBenchmarkTest.class);
+
+    private static final int SUBMITTERS = 32;
+    private static final int PER_SUBMITTER = 250;
+    private static final int TOTAL = SUBMITTERS * PER_SUBMITTER;
+
+    @Autowired
+    EnquiryRepository enquiryRepository;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeBehindAgainstSynchronousCreate() throws Exception {
+        projectRepository.save(Project.builder()
+                .code("bench").name("Bench").projectStatus(ProjectStatus.UNDER_CONSTRUCTION).city("Pune").build());
+        ProjectCodeCache codes = new ProjectCodeCache(projectRepository, 100, 600);
+        EnquiryDeduplicator dedup = new EnquiryDeduplicator(new SimpleMeterRegistry(), false, 600, 10, 1000);
+
+        EnquiryServiceImpl service = new EnquiryServiceImpl(enquiryRepository, projectRepository, codes, dedup);
+        Result sync = run(req -> service.create(req, "127.0.0.1", "bench"));
+        assertThat(enquiryRepository.count()).isEqualTo(TOTAL);
+        enquiryRepository.deleteAllInBatch();
+
+        EnquiryWriteBehind writeBehind = new EnquiryWriteBehind(codes, dedup, jdbcTemplate, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                TOTAL, 200, 200, 30000, 10000, dir.resolve("enquiries.ndjson").toString(), false);
+        Result queued;
+        long persistedNanos;
+        try {
+            long start = System.nanoTime();
+            queued = run(writeBehind::accept);
+            while (enquiryRepository.count() < TOTAL) Thread.sleep(5);
+            persistedNanos = System.nanoTime() - start;
+        } finally {
+            writeBehind.shutdown();
+        }
+        assertThat(enquiryRepository.count()).isEqualTo(TOTAL);
+
+        log.info("sync create:  {} req/s, p99 {} ms", Math.round(sync.throughput()), String.format("%.2f", sync.p99Millis()));
+        log.info("write-behind: {} req/s, p99 {} ms, all rows stored after {} ms", Math.round(queued.throughput()),
+                String.format("%.2f", queued.p99Millis()), Math.round(persistedNanos / 1e6));
+    }
+
+    private static Result run(Consumer<EnquiryDTOs.CreateEnquiryRequest> submit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SUBMITTERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int s = 0; s < SUBMITTERS; s++) {
+                int submitter = s;
+                futures.add(pool.submit(() -> {
+                    long[] latencies = new long[PER_SUBMITTER];
+                    for (int i = 0; i < PER_SUBMITTER; i++) {
+                        EnquiryDTOs.CreateEnquiryRequest req = new EnquiryDTOs.CreateEnquiryRequest("bench",
+                                "Visitor " + submitter, "visitor" + submitter + "@example.com", "+91 98765 43210",
+                                "Please share the floor plans and pricing, enquiry " + i);
+                        long t0 = System.nanoTime();
+                        submit.accept(req);
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[TOTAL];
+            int n = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, n, latencies.length);
+                n += latencies.length;
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(all);
+            return new Result(TOTAL / (elapsed / 1e9), all[(int) Math.ceil(TOTAL * 0.99) - 1] / 1e6);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(double throughput, double p99Millis) {}
+}
@@ -0,0 +1,164 @@
+package com.backend.jvconstructions.enquiry;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.entity.Enquiry;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.repository.EnquiryRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** The writer runs on its own thread, so assertions wait for it. */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnquiryWriteBehindTest extends MySqlTest {
+
+    @Autowired
+    EnquiryRepository enquiryRepository;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    Path spill;
+    EnquiryWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        spill = dir.resolve("enquiries.ndjson");
+        enquiryRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writeBehind != null) writeBehind.shutdown();
+    }
+
+    @Test
+    void spillFileIsRequired() {
+        assertThatThrownBy(() -> start(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("spillFile");
+    }
+
+    @Test
+    void acceptedEnquiriesAreStoredAndTheSpillFileTruncated() throws Exception {
+        Project project = projectRepository.save(Project.builder()
+                .code("villa").name("Villa").projectStatus(ProjectStatus.UNDER_CONSTRUCTION).city("Pune").build());
+        start(spill.toString());
+
+        EnquiryDTOs.EnquiryAcceptedDTO accepted = writeBehind.accept(new EnquiryDTOs.CreateEnquiryRequest(
+                "villa", "Asha", "asha@example.com", "+91 98765 43210", "Floor plans please"));
+
+        assertThat(accepted.status()).isEqualTo("QUEUED");
+        await(() -> enquiryRepository.count() == 1);
+        Enquiry stored = enquiryRepository.findAll().get(0);
+        assertThat(stored.getTrackingId()).isEqualTo(accepted.trackingId());
+        assertThat(stored.getProject().getId()).isEqualTo(project.getId());
+        await(() -> size(spill) == 0);
+    }
+
+    @Test
+    void leftoverEnquiriesAreReplayedOnce() throws Exception {
+        PendingEnquiry stored = pending("already-stored", null);
+        PendingEnquiry lost = pending("not-yet-stored", null);
+        try (EnquirySpillFile file = new EnquirySpillFile(spill, objectMapper, false)) {
+            file.append(stored);
+            file.append(lost);
+        }
+        // A crash in the middle of an append leaves a torn last line.
+        Files.writeString(spill, "{\"trackingId\":\"torn", StandardOpenOption.APPEND);
+        jdbcTemplate.update("insert into enquiries (tracking_id, name, email, phone, message, status, created_at, updated_at) "
+                + "values ('already-stored', 'Asha', 'asha@example.com', '+91 98765 43210', 'Hello', 'NEW', now(), now())");
+
+        start(spill.toString());
+
+        await(() -> enquiryRepository.count() == 2);
+        await(() -> size(spill) == 0);
+        assertThat(enquiryRepository.findAll()).extracting(Enquiry::getTrackingId)
+                .containsExactlyInAnyOrder("already-stored", "not-yet-stored");
+    }
+
+    @Test
+    void enquiryForADeletedProjectIsStoredWithoutIt() throws Exception {
+        Project project = projectRepository.save(Project.builder()
+                .code("villa").name("Villa").projectStatus(ProjectStatus.UNDER_CONSTRUCTION).city("Pune").build());
+        try (EnquirySpillFile file = new EnquirySpillFile(spill, objectMapper, false)) {
+            file.append(pending("first", project.getId()));
+            file.append(pending("orphaned", project.getId() + 1000));
+            file.append(pending("last", null));
+        }
+
+        // The batch fails on the foreign key and is retried row by row.
+        start(spill.toString());
+
+        await(() -> enquiryRepository.count() == 3);
+        List<Object[]> rows = jdbcTemplate.query("select tracking_id, project_id from enquiries order by tracking_id",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getObject(2)});
+        assertThat(rows).extracting(row -> row[0]).containsExactly("first", "last", "orphaned");
+        assertThat(rows.get(0)[1]).isNotNull();
+        assertThat(rows.get(2)[1]).isNull();
+        assertThat(meterRegistry.get("enquiries.ingest.detached").counter().count()).isEqualTo(1);
+    }
+
+    private void start(String spillFile) throws Exception {
+        ProjectCodeCache codes = new ProjectCodeCache(projectRepository, 100, 600);
+        EnquiryDeduplicator dedup = new EnquiryDeduplicator(new SimpleMeterRegistry(), true, 600, 10, 1000);
+        writeBehind = new EnquiryWriteBehind(codes, dedup, jdbcTemplate, transactionManager, objectMapper,
+                meterRegistry, 100, 50, 50, 1000, 5000, spillFile, false);
+    }
+
+    private static PendingEnquiry pending(String trackingId, Long projectId) {
+        return new PendingEnquiry(trackingId, projectId, "Asha", "asha@example.com", "+91 98765 43210",
+                "Floor plans please", Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
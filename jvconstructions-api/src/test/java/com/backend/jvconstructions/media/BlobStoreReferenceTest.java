@@ -0,0 +1,131 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import com.backend.jvconstructions.enums.MediaOperation;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaOutboxRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Each step runs in its own transaction, as requests would. */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BlobStore.class, MediaOutbox.class})
+class BlobStoreReferenceTest extends MySqlTest {
+
+    private static final String KEY = BlobStore.PREFIX + "aa11.png";
+
+    @MockitoBean
+    MediaStorage mediaStorage;
+
+    @Autowired
+    BlobStore blobStore;
+
+    @Autowired
+    MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    MediaOutboxRepository mediaOutboxRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        mediaOutboxRepository.deleteAllInBatch();
+        mediaBlobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void onlyTheFirstReferenceIsFresh() {
+        assertThat(acquire()).isTrue();
+        assertThat(acquire()).isFalse();
+
+        assertThat(mediaBlobRepository.findRefCount(KEY)).contains(2);
+        assertThat(blobStore.findStored(List.of(KEY, BlobStore.PREFIX + "bb22.png"))).containsExactly(KEY);
+    }
+
+    @Test
+    void deletionIsQueuedWithTheLastReferenceOnly() {
+        acquire();
+        acquire();
+
+        release(KEY);
+        assertThat(mediaBlobRepository.findRefCount(KEY)).contains(1);
+        assertThat(mediaOutboxRepository.count()).isZero();
+
+        release(KEY);
+        assertThat(mediaBlobRepository.findRefCount(KEY)).contains(0);
+        assertThat(blobStore.findStored(List.of(KEY))).isEmpty();
+        List<MediaOutboxEntry> entries = mediaOutboxRepository.findAll();
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getOperation()).isEqualTo(MediaOperation.DELETE_BLOBS);
+            assertThat(entry.getPayload()).isEqualTo(KEY);
+        });
+    }
+
+    @Test
+    void repeatedKeysReleaseOneReferenceEach() {
+        acquire();
+        acquire();
+        acquire();
+
+        release(KEY, KEY);
+
+        assertThat(mediaBlobRepository.findRefCount(KEY)).contains(1);
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void releasingMoreThanHeldLeavesTheCountAlone() {
+        acquire();
+
+        release(KEY, KEY);
+
+        assertThat(mediaBlobRepository.findRefCount(KEY)).contains(1);
+    }
+
+    @Test
+    void ensureStoredUploadsOnlyMissingObjects() throws Exception {
+        ByteArrayResource bytes = new ByteArrayResource(new byte[]{1, 2, 3});
+        when(mediaStorage.exists(KEY)).thenReturn(true);
+        blobStore.ensureStored(KEY, bytes, 3, "image/png");
+        verify(mediaStorage, never()).uploadObject(anyString(), any(InputStream.class), anyLong(), anyString());
+
+        when(mediaStorage.exists(KEY)).thenReturn(false);
+        blobStore.ensureStored(KEY, bytes, 3, "image/png");
+        verify(mediaStorage).uploadObject(eq(KEY), any(InputStream.class), eq(3L), eq("image/png"));
+    }
+
+    private boolean acquire() {
+        return Boolean.TRUE.equals(tx.execute(status -> blobStore.acquire(KEY, "image/png", 3)));
+    }
+
+    private void release(String... keys) {
+        tx.executeWithoutResult(status -> blobStore.release(List.of(keys)));
+    }
+}
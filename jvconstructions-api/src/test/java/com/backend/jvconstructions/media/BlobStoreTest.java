@@ -0,0 +1,48 @@
+package com.backend.jvconstructions.media;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobStoreTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0, 0, 16, 'J', 'F', 'I', 'F', 0};
+    private static final byte[] WEBP = {'R', 'I', 'F', 'F', 4, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+
+    @Test
+    void keysAreDerivedFromContentOnly() throws Exception {
+        ByteArrayResource hello = new ByteArrayResource("hello".getBytes());
+
+        String key = BlobStore.contentKey(hello);
+
+        assertThat(key).isEqualTo("blobs/sha256/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.bin");
+        assertThat(BlobStore.contentKey(new ByteArrayResource("hello!".getBytes()))).isNotEqualTo(key);
+        assertThat(BlobStore.isBlobKey(key)).isTrue();
+    }
+
+    @Test
+    void extensionComesFromTheImageSignature() throws Exception {
+        assertThat(BlobStore.contentKey(new ByteArrayResource(PNG))).endsWith(".png");
+        assertThat(BlobStore.contentKey(new ByteArrayResource(JPEG))).endsWith(".jpg");
+        assertThat(BlobStore.contentKey(new ByteArrayResource(WEBP))).endsWith(".webp");
+        assertThat(BlobStore.contentKey(new ByteArrayResource(Arrays.copyOf(PNG, 4)))).endsWith(".bin");
+    }
+
+    /**
+     * Bytes uploaded once as {@code .png} and once as {@code .jpg} used to become two blobs
+     * sharing the same variant keys, so deleting either one removed the other's variants.
+     */
+    @Test
+    void sameBytesUnderDifferentNamesShareOneBlobAndItsVariants() throws Exception {
+        String asPng = BlobStore.contentKey(new ByteArrayResource(PNG, "plan.png"));
+        String asJpg = BlobStore.contentKey(new ByteArrayResource(PNG.clone(), "plan.jpg"));
+
+        assertThat(asJpg).isEqualTo(asPng);
+        assertThat(ImageVariant.allKeys(asJpg)).isEqualTo(ImageVariant.allKeys(asPng));
+        assertThat(ImageVariant.CARD.key(asPng)).isEqualTo(asPng.substring(0, asPng.length() - ".png".length()) + ".card.jpg");
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.jvconstructions.media;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageVariantGeneratorTest {
+
+    @Test
+    void recordsOriginalSizeAndBoundsEveryVariant() throws IOException {
+        ImageVariantGenerator.Result result = ImageVariantGenerator.generate(png(4000, 2500));
+
+        assertThat(result.width()).isEqualTo(4000);
+        assertThat(result.height()).isEqualTo(2500);
+        assertThat(result.variants()).containsOnlyKeys(ImageVariant.values());
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.variants().get(variant)));
+            assertThat(decoded.getWidth()).isEqualTo(variant.maxEdge());
+            assertThat(decoded.getHeight()).isEqualTo(variant.maxEdge() * 5 / 8);
+        }
+        assertThat(result.lqip()).startsWith("data:image/jpeg;base64,").hasSizeLessThan(2000);
+    }
+
+    @Test
+    void neverUpscalesSmallImages() throws IOException {
+        ImageVariantGenerator.Result result = ImageVariantGenerator.generate(png(200, 300));
+
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(result.variants().get(ImageVariant.FULL)));
+        assertThat(full.getWidth()).isEqualTo(200);
+        assertThat(full.getHeight()).isEqualTo(300);
+    }
+
+    @Test
+    void rejectsUndecodableInput() {
+        assertThatThrownBy(() -> ImageVariantGenerator.generate(new ByteArrayInputStream("not an image".getBytes())))
+                .isInstanceOf(IIOException.class);
+    }
+
+    @Test
+    void derivesVariantKeysNextToOriginal() {
+        assertThat(ImageVariant.CARD.key("projects/villa/images/abc.png")).isEqualTo("projects/villa/images/abc.card.jpg");
+        assertThat(ImageVariant.THUMB.key("projects/v.1/images/abc")).isEqualTo("projects/v.1/images/abc.thumb.jpg");
+    }
+
+    private static ByteArrayInputStream png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x += 5) {
+            for (int y = 0; y < height; y++) image.setRGB(x, y, 0xff000000 | (x * 31 + y));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
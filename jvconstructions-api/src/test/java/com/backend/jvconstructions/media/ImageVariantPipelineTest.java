@@ -0,0 +1,72 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.enums.ImageVariantStatus;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageVariantPipelineTest {
+
+    private static final String KEY = "projects/lake/images/a.jpg";
+
+    private final MediaStorage mediaStorage = mock(MediaStorage.class);
+    private final ProjectImageRepository projectImageRepository = mock(ProjectImageRepository.class);
+    private final ImageVariantPipeline pipeline = new ImageVariantPipeline(mediaStorage, projectImageRepository,
+            mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class), 1, 1, 0);
+
+    @AfterEach
+    void shutdown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void imageWithoutAStoredOriginalIsMarkedFailed() {
+        when(mediaStorage.openObject(KEY)).thenThrow(new IllegalStateException("NoSuchKey"));
+        when(mediaStorage.exists(KEY)).thenReturn(false);
+
+        pipeline.process(1L, KEY);
+
+        verify(projectImageRepository).updateVariants(1L, null, null, null, ImageVariantStatus.FAILED);
+    }
+
+    @Test
+    void undecodableImageIsMarkedFailed() {
+        when(mediaStorage.openObject(KEY)).thenReturn(new ByteArrayInputStream("not an image".getBytes()));
+
+        pipeline.process(1L, KEY);
+
+        verify(projectImageRepository).updateVariants(1L, null, null, null, ImageVariantStatus.FAILED);
+    }
+
+    @Test
+    void readErrorsOnAStoredOriginalAreLeftForTheSweep() {
+        when(mediaStorage.openObject(KEY)).thenThrow(new IllegalStateException("connection reset"));
+        when(mediaStorage.exists(KEY)).thenReturn(true);
+
+        pipeline.process(1L, KEY);
+
+        verify(projectImageRepository, never()).updateVariants(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void imageIsRetriedWhenStorageCannotSayWhetherTheOriginalExists() {
+        when(mediaStorage.openObject(KEY)).thenThrow(new IllegalStateException("connection reset"));
+        when(mediaStorage.exists(KEY)).thenThrow(new IllegalStateException("connection reset"));
+
+        pipeline.process(1L, KEY);
+
+        verify(projectImageRepository, never()).updateVariants(anyLong(), any(), any(), any(), any());
+    }
+}
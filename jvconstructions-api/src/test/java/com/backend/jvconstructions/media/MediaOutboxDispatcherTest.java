@@ -0,0 +1,208 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.entity.MediaBlob;
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaOutboxRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Runs the dispatcher against MySQL, each step in its own transaction. */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BlobStore.class, MediaOutbox.class})
+class MediaOutboxDispatcherTest extends MySqlTest {
+
+    private static final String BLOB = BlobStore.PREFIX + "aa11.png";
+
+    @MockitoBean
+    MediaStorage mediaStorage;
+
+    @Autowired
+    BlobStore blobStore;
+
+    @Autowired
+    MediaOutbox mediaOutbox;
+
+    @Autowired
+    MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    MediaOutboxRepository mediaOutboxRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+    MediaOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        dispatcher = new MediaOutboxDispatcher(mediaOutboxRepository, mediaBlobRepository, mediaStorage,
+                transactionManager, new SimpleMeterRegistry(), 1000, 600000);
+        mediaOutboxRepository.deleteAllInBatch();
+        mediaBlobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(dispatcher.backoff(10)).isEqualTo(Duration.ofSeconds(512));
+        assertThat(dispatcher.backoff(11)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(dispatcher.backoff(1000)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void onlyFailedKeysAreRetriedAfterTheBackoff() {
+        tx.executeWithoutResult(status -> mediaOutbox.deleteObjects(List.of("a", "b", "c")));
+        when(mediaStorage.deleteObjects(List.of("a", "b", "c"))).thenReturn(List.of("b"));
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        MediaOutboxEntry entry = mediaOutboxRepository.findAll().get(0);
+        assertThat(entry.getPayload()).isEqualTo("b");
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).isEqualTo("1 keys not deleted");
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(1));
+
+        // Not due yet.
+        dispatcher.dispatch();
+        verify(mediaStorage, never()).deleteObjects(List.of("b"));
+
+        entry.setNextAttemptAt(Instant.now().minusSeconds(1));
+        mediaOutboxRepository.save(entry);
+        dispatcher.dispatch();
+
+        verify(mediaStorage).deleteObjects(List.of("b"));
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void entriesLockedElsewhereAreSkipped() throws Exception {
+        tx.executeWithoutResult(status -> mediaOutbox.deleteObjects(List.of("a")));
+        tx.executeWithoutResult(status -> mediaOutbox.deleteObjects(List.of("b")));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another instance claims the oldest entry and is still working on it.
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            assertThat(mediaOutboxRepository.lockDue(Instant.now(), 1)).hasSize(1);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        dispatcher.dispatch();
+        release.countDown();
+        other.get(10, TimeUnit.SECONDS);
+
+        verify(mediaStorage).deleteObjects(List.of("b"));
+        verify(mediaStorage, never()).deleteObjects(List.of("a"));
+        assertThat(mediaOutboxRepository.findAll()).extracting(MediaOutboxEntry::getPayload).containsExactly("a");
+    }
+
+    @Test
+    void blobReacquiredBeforeDispatchIsKept() {
+        acquire();
+        release();
+        assertThat(acquire()).isTrue();
+
+        dispatcher.dispatch();
+
+        verify(mediaStorage, never()).deleteObjects(anyCollection());
+        assertThat(mediaBlobRepository.findRefCount(BLOB)).contains(1);
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void blobReacquiredAfterDeleteIsStoredAgain() throws Exception {
+        acquire();
+        release();
+
+        dispatcher.dispatch();
+
+        verify(mediaStorage).deleteObjects(ImageVariant.allKeys(BLOB));
+        assertThat(mediaBlobRepository.existsById(BLOB)).isFalse();
+        assertThat(mediaOutboxRepository.count()).isZero();
+
+        // The uploader saw no live reference, so the bytes are back in storage after it commits.
+        assertThat(acquire()).isTrue();
+        when(mediaStorage.exists(BLOB)).thenReturn(false);
+        blobStore.ensureStored(BLOB, new ByteArrayResource(new byte[]{1, 2, 3}), 3, "image/png");
+        verify(mediaStorage).uploadObject(eq(BLOB), any(InputStream.class), eq(3L), eq("image/png"));
+    }
+
+    @Test
+    void blobWithoutARowIsDeleted() {
+        tx.executeWithoutResult(status -> mediaOutbox.deleteBlobs(List.of(BLOB)));
+
+        dispatcher.dispatch();
+
+        verify(mediaStorage).deleteObjects(ImageVariant.allKeys(BLOB));
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void unreferencedBlobsAreDeletedInStorageCallsOfAtMostAThousandKeys() {
+        List<String> blobs = IntStream.range(0, 300).mapToObj(i -> BlobStore.PREFIX + "b" + i + ".png").toList();
+        tx.executeWithoutResult(status -> blobs.forEach(key -> blobStore.acquire(key, "image/png", 3)));
+        // One blob is taken again before the dispatcher runs.
+        tx.executeWithoutResult(status -> blobStore.release(blobs));
+        tx.executeWithoutResult(status -> blobStore.acquire(blobs.get(0), "image/png", 3));
+        List<Integer> callSizes = new ArrayList<>();
+        when(mediaStorage.deleteObjects(anyCollection())).thenAnswer(invocation -> {
+            callSizes.add(invocation.<Collection<String>>getArgument(0).size());
+            return List.of();
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(callSizes).containsExactly(1000, 196);
+        assertThat(mediaBlobRepository.findAll()).extracting(MediaBlob::getS3Key).containsExactly(blobs.get(0));
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    private boolean acquire() {
+        return Boolean.TRUE.equals(tx.execute(status -> blobStore.acquire(BLOB, "image/png", 3)));
+    }
+
+    private void release() {
+        tx.executeWithoutResult(status -> blobStore.release(List.of(BLOB)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.entity.MediaReconcileCheckpoint;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaReconcileCheckpointRepository;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.util.MediaStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Runs the reconciler against MySQL with a mocked bucket; nothing in the database references the listed keys. */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrphanReconcilerTest extends MySqlTest {
+
+    private static final String OBJECT = "projects/1/a.png";
+    private static final String BLOB = BlobStore.PREFIX + "aa11.png";
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(2));
+
+    @Autowired
+    ProjectImageRepository projectImageRepository;
+
+    @Autowired
+    MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    MediaReconcileCheckpointRepository checkpointRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    MediaStorage mediaStorage;
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        mediaStorage = mock(MediaStorage.class);
+        tx = new TransactionTemplate(transactionManager);
+        checkpointRepository.deleteAllInBatch();
+        mediaBlobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void passResumesFromTheCheckpointAfterARestart() {
+        when(mediaStorage.listObjects(null, 2)).thenReturn(List.of(stored("projects/1/a.png"), stored("projects/1/b.png")));
+        when(mediaStorage.listObjects("projects/1/b.png", 2)).thenReturn(List.of(stored("projects/1/c.png")));
+
+        reconciler(mediaBlobRepository, false).run();
+
+        MediaReconcileCheckpoint checkpoint = checkpointRepository.findById("media-orphans").orElseThrow();
+        assertThat(checkpoint.getCursorKey()).isEqualTo("projects/1/b.png");
+        assertThat(checkpoint.getPassStartedAt()).isNotNull();
+
+        // A new instance, as after a restart.
+        reconciler(mediaBlobRepository, false).run();
+
+        verify(mediaStorage).listObjects("projects/1/b.png", 2);
+        MediaReconcileCheckpoint finished = checkpointRepository.findById("media-orphans").orElseThrow();
+        assertThat(finished.getCursorKey()).isNull();
+        assertThat(finished.getPassStartedAt()).isEqualTo(checkpoint.getPassStartedAt());
+        verify(mediaStorage, never()).deleteObjects(anyCollection());
+    }
+
+    @Test
+    void unreferencedObjectsAndBlobsAreDeleted() {
+        when(mediaStorage.listObjects(null, 2)).thenReturn(List.of(stored(BLOB), stored(OBJECT)));
+        when(mediaStorage.lastModified(anyString())).thenReturn(Optional.of(OLD));
+
+        reconciler(mediaBlobRepository, true).run();
+
+        verify(mediaStorage).deleteObjects(List.of(OBJECT));
+        verify(mediaStorage).deleteObjects(List.of(BLOB));
+        assertThat(mediaBlobRepository.count()).isZero();
+    }
+
+    @Test
+    void objectWrittenAgainSinceListingIsKept() {
+        when(mediaStorage.listObjects(null, 2)).thenReturn(List.of(stored(BLOB), stored(OBJECT)));
+        when(mediaStorage.lastModified(anyString())).thenReturn(Optional.of(Instant.now()));
+
+        reconciler(mediaBlobRepository, true).run();
+
+        verify(mediaStorage, never()).deleteObjects(anyCollection());
+        assertThat(mediaBlobRepository.count()).isZero();
+    }
+
+    @Test
+    void blobReferencedAfterTheCheckIsKept() {
+        when(mediaStorage.listObjects(null, 2)).thenReturn(List.of(stored(BLOB)));
+        when(mediaStorage.lastModified(anyString())).thenReturn(Optional.of(OLD));
+        MediaBlobRepository racing = mock(MediaBlobRepository.class, AdditionalAnswers.delegatesTo(mediaBlobRepository));
+        doAnswer(invocation -> {
+            boolean referenced = mediaBlobRepository.existsByS3KeyStartingWith(invocation.getArgument(0));
+            // An upload of the same bytes commits right after the reference check.
+            tx.executeWithoutResult(status -> mediaBlobRepository.acquire(BLOB, "image/png", 3, Instant.now()));
+            return referenced;
+        }).when(racing).existsByS3KeyStartingWith(anyString());
+
+        reconciler(racing, true).run();
+
+        verify(mediaStorage, never()).deleteObjects(anyCollection());
+        assertThat(mediaBlobRepository.findRefCount(BLOB)).contains(1);
+        assertThat(mediaBlobRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void uploadDuringTheDeleteWaitsAndStartsOver() throws Exception {
+        when(mediaStorage.listObjects(null, 2)).thenReturn(List.of(stored(BLOB)));
+        when(mediaStorage.lastModified(anyString())).thenReturn(Optional.of(OLD));
+        CompletableFuture<Boolean> upload = new CompletableFuture<>();
+        when(mediaStorage.deleteObjects(List.of(BLOB))).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> upload.complete(tx.execute(status -> {
+                mediaBlobRepository.acquire(BLOB, "image/png", 3, Instant.now());
+                return mediaBlobRepository.findRefCount(BLOB).orElse(0) == 1;
+            })));
+            Thread.sleep(300);
+            assertThat(upload).isNotDone();
+            return List.of();
+        });
+
+        reconciler(mediaBlobRepository, true).run();
+
+        // The upload holds the only reference, so it stores its bytes again (BlobStore.ensureStored).
+        assertThat(upload.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(mediaBlobRepository.findRefCount(BLOB)).contains(1);
+    }
+
+    private OrphanReconciler reconciler(MediaBlobRepository blobs, boolean delete) {
+        return new OrphanReconciler(mediaStorage, projectImageRepository, blobs, checkpointRepository,
+                transactionManager, new SimpleMeterRegistry(), 2, 1, 24, 60, 0.000001, delete);
+    }
+
+    private static MediaStorage.StoredObject stored(String key) {
+        return new MediaStorage.StoredObject(key, OLD);
+    }
+}
@@ -0,0 +1,125 @@
+package com.backend.jvconstructions.media;
+
+import com.backend.jvconstructions.util.MediaStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class ParallelUploaderTest {
+
+    private final MediaStorage mediaStorage = mock(MediaStorage.class);
+    private final ParallelUploader uploader = new ParallelUploader(mediaStorage, 4, 16, 2);
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void shutdown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void oneFailureIsRethrownAfterTheOthersFinish() {
+        recordUploads();
+        IllegalStateException failure = new IllegalStateException("S3 unavailable");
+        doThrow(failure).when(mediaStorage).uploadObject(eq("k1"), any(InputStream.class), anyLong(), anyString());
+
+        assertThatThrownBy(() -> uploader.uploadAll(uploads(6))).isSameAs(failure);
+        assertThat(stored).containsExactlyInAnyOrder("k0", "k2", "k3", "k4", "k5");
+    }
+
+    @Test
+    void unreadableSourcesFailTheBatch() {
+        recordUploads();
+        ParallelUploader.Upload unreadable = new ParallelUploader.Upload("broken", () -> {
+            throw new IOException("part file gone");
+        }, 1, "image/jpeg");
+
+        assertThatThrownBy(() -> uploader.uploadAll(List.of(upload("k0"), unreadable)))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("part file gone");
+        assertThat(stored).containsExactly("k0");
+    }
+
+    @Test
+    void runsAtMostPerRequestConcurrencyAtATime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        }).when(mediaStorage).uploadObject(anyString(), any(InputStream.class), anyLong(), anyString());
+
+        uploader.uploadAll(uploads(10));
+
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void interruptingTheCallerCancelsUnfinishedUploads() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch interruptedUploads = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interruptedUploads.countDown();
+                throw e;
+            }
+            return null;
+        }).when(mediaStorage).uploadObject(anyString(), any(InputStream.class), anyLong(), anyString());
+
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                uploader.uploadAll(uploads(4));
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(5000);
+
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(thrown.get()).isInstanceOf(IllegalStateException.class).hasMessage("Interrupted while uploading");
+        assertThat(interruptedUploads.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void recordUploads() {
+        doAnswer(invocation -> stored.add(invocation.getArgument(0)))
+                .when(mediaStorage).uploadObject(anyString(), any(InputStream.class), anyLong(), anyString());
+    }
+
+    private static List<ParallelUploader.Upload> uploads(int count) {
+        return IntStream.range(0, count).mapToObj(i -> upload("k" + i)).toList();
+    }
+
+    private static ParallelUploader.Upload upload(String key) {
+        return new ParallelUploader.Upload(key, new ByteArrayResource(new byte[]{1, 2, 3}), 3, "image/jpeg");
+    }
+}
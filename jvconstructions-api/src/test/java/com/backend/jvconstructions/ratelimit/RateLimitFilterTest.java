@@ -0,0 +1,132 @@
+package com.backend.jvconstructions.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void clientOverItsLimitGets429WithRetryAfter() throws Exception {
+        MockMvc mvc = mvc(route("enquiries-create", "/api/v1/enquiries", "POST", limit(2, 0.5), null));
+
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.code").value("RATE_LIMITED"))
+                .andExpect(jsonPath("$.path").value("/api/v1/enquiries"));
+        // Other clients have their own bucket.
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.2").andExpect(status().isOk());
+
+        assertThat(rejected("enquiries-create", "client")).isEqualTo(1);
+    }
+
+    @Test
+    void onlyTheConfiguredMethodsAndPathsAreLimited() throws Exception {
+        MockMvc mvc = mvc(
+                route("enquiries-create", "/api/v1/enquiries", "POST", limit(1, 0.001), null),
+                route("projects-read", "/api/v1/projects/**", "GET", limit(1, 0.001), null));
+
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isTooManyRequests());
+        send(mvc, get("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/enquiries/mine"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, options("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+
+        send(mvc, get("/api/v1/projects/lake/details"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, get("/api/v1/projects"), "10.0.0.1").andExpect(status().isTooManyRequests());
+        send(mvc, post("/api/v1/projects/batch"), "10.0.0.1").andExpect(status().isOk());
+    }
+
+    @Test
+    void sharedBucketRejectsEveryClientWithoutChargingThem() throws Exception {
+        // One shared token, back within a second; clients get one token each, back after about 17 minutes.
+        MockMvc mvc = mvc(route("enquiries-create", "/api/v1/enquiries", "POST", limit(1, 0.001), limit(1, 1)));
+
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.2")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+        assertThat(rejected("enquiries-create", "total")).isEqualTo(1);
+
+        Thread.sleep(1100);
+        send(mvc, post("/api/v1/enquiries"), "10.0.0.2").andExpect(status().isOk());
+        assertThat(rejected("enquiries-create", "client")).isZero();
+    }
+
+    @Test
+    void requestsTakeTheRouteCost() throws Exception {
+        RateLimitProperties.Route batch = route("projects-batch", "/api/v1/projects/batch", "POST", limit(25, 0.001), null);
+        batch.setCost(10);
+        MockMvc mvc = mvc(batch);
+
+        send(mvc, post("/api/v1/projects/batch"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/projects/batch"), "10.0.0.1").andExpect(status().isOk());
+        send(mvc, post("/api/v1/projects/batch"), "10.0.0.1").andExpect(status().isTooManyRequests());
+    }
+
+    private MockMvc mvc(RateLimitProperties.Route... routes) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(routes));
+        RateLimitFilter filter = new RateLimitFilter(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        return MockMvcBuilders.standaloneSetup(new OkController()).addFilters(filter).build();
+    }
+
+    private static ResultActions send(MockMvc mvc, MockHttpServletRequestBuilder request, String client) throws Exception {
+        return mvc.perform(request.with(r -> {
+            r.setRemoteAddr(client);
+            return r;
+        }));
+    }
+
+    private double rejected(String route, String scope) {
+        return meterRegistry.get("ratelimit.rejected").tag("route", route).tag("scope", scope).counter().count();
+    }
+
+    private static RateLimitProperties.Route route(String name, String pattern, String method,
+                                                   RateLimitProperties.Limit perClient, RateLimitProperties.Limit total) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setName(name);
+        route.setPattern(pattern);
+        route.setMethods(List.of(method));
+        route.setPerClient(perClient);
+        route.setTotal(total);
+        return route;
+    }
+
+    private static RateLimitProperties.Limit limit(double capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+
+    @RestController
+    static class OkController {
+
+        @RequestMapping("/**")
+        String ok() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.backend.jvconstructions.repository;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts INSERT statements as executed by the MySQL session. With pooled ids and
+ * rewriteBatchedStatements, a batch of 50 rows reaches the server as one statement.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=50")
+class ProjectBatchInsertTest extends MySqlTest {
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ProjectImageRepository projectImageRepository;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Test
+    void insertsImagesOneStatementPerBatch() {
+        Project project = em.persistAndFlush(project("batch-images"));
+        List<ProjectImage> images = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            images.add(ProjectImage.builder()
+                    .project(project)
+                    .s3Key("projects/batch-images/images/" + i + ".jpg")
+                    .mimeType("image/jpeg")
+                    .sortOrder(i)
+                    .build());
+        }
+
+        long before = insertStatements();
+        projectImageRepository.saveAll(images);
+        em.flush();
+
+        assertThat(insertStatements() - before).isEqualTo(2);
+        assertThat(projectImageRepository.findByProjectIdOrderBySortOrderAscIdAsc(project.getId())).hasSize(100);
+    }
+
+    @Test
+    void importsProjectsOneStatementPerBatch() {
+        long before = insertStatements();
+        projectRepository.saveAll(IntStream.range(0, 120).mapToObj(i -> project("import-" + i)).toList());
+        em.flush();
+
+        assertThat(insertStatements() - before).isEqualTo(3);
+        assertThat(projectRepository.count()).isEqualTo(120);
+    }
+
+    private long insertStatements() {
+        Object[] row = (Object[]) em.getEntityManager()
+                .createNativeQuery("SHOW SESSION STATUS LIKE 'Com_insert'")
+                .getSingleResult();
+        return Long.parseLong(row[1].toString());
+    }
+
+    private static Project project(String code) {
+        return Project.builder()
+                .code(code)
+                .name("Project " + code)
+                .projectStatus(ProjectStatus.UNDER_CONSTRUCTION)
+                .city("Pune")
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.backend.jvconstructions.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @BeforeEach
+    void seed() {
+        put(1L, "Lake View Villas", "Pune", "Premium villas facing the lake with private gardens.");
+        put(2L, "Skyline Towers", "Mumbai", "Residential towers with a rooftop garden.");
+        put(3L, "Green Meadows", "Pune", "Affordable apartments near the highway.");
+        put(4L, "Garden Court", "Nagpur", "Plots.");
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(index.search("garden")).startsWith(4L).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(index.search("towers")).containsExactly(2L);
+    }
+
+    @Test
+    void requiresEveryQueryTermToMatch() {
+        assertThat(index.search("pune villas")).containsExactly(1L);
+        assertThat(index.search("mumbai villas")).isEmpty();
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        assertThat(index.search("skyl")).containsExactly(2L);
+        assertThat(index.search("medows")).containsExactly(3L);
+        assertThat(index.search("PUN\u00c9")).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void reflectsUpdatesAndRemovals() {
+        put(3L, "Green Meadows Phase II", "Nashik", "Row houses.");
+        assertThat(index.search("pune")).containsExactly(1L);
+        assertThat(index.search("nashik")).containsExactly(3L);
+
+        index.remove(1L);
+        assertThat(index.search("lake")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private void put(Long id, String name, String city, String description) {
+        index.put(id, List.of(
+                new InvertedIndex.Field(name, 3.0),
+                new InvertedIndex.Field(city, 2.0),
+                new InvertedIndex.Field(description, 1.0)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.backend.jvconstructions.search;
+
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.backend.jvconstructions.enums.ProjectStatus.COMPLETED;
+import static com.backend.jvconstructions.enums.ProjectStatus.UNDER_CONSTRUCTION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProjectFacetCounterTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectFacetCounter counter = new ProjectFacetCounter(projectRepository, 1, 10);
+
+    @Test
+    void eventsMoveProjectsBetweenFacets() {
+        counter.onProjectChanged(event(1L, UNDER_CONSTRUCTION, "Pune", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(2L, UNDER_CONSTRUCTION, "pune", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(3L, COMPLETED, "Mumbai", ProjectChangedEvent.Type.CREATED));
+
+        counter.onProjectChanged(event(1L, COMPLETED, "Nashik", ProjectChangedEvent.Type.UPDATED));
+        counter.onProjectChanged(event(3L, COMPLETED, "Mumbai", ProjectChangedEvent.Type.DELETED));
+
+        ProjectDTOs.FacetsDTO facets = counter.facets();
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.projectStatus()).isEqualTo(Map.of(UNDER_CONSTRUCTION, 1L, COMPLETED, 1L));
+        // Emptied facets disappear instead of showing zero.
+        assertThat(facets.city()).isEqualTo(Map.of("Pune", 1L, "Nashik", 1L));
+    }
+
+    @Test
+    void citiesAreGroupedIgnoringCaseAndListedByCount() {
+        counter.onProjectChanged(event(1L, COMPLETED, "Mumbai", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(2L, COMPLETED, "Pune", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(3L, COMPLETED, "PUNE", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(4L, COMPLETED, " ", ProjectChangedEvent.Type.CREATED));
+
+        assertThat(counter.facets().city()).containsExactly(Map.entry("Pune", 2L), Map.entry("Mumbai", 1L));
+    }
+
+    @Test
+    void repeatedAndImageEventsDoNotChangeCounts() {
+        counter.onProjectChanged(event(1L, COMPLETED, "Pune", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(1L, COMPLETED, "Pune", ProjectChangedEvent.Type.UPDATED));
+        counter.onProjectChanged(event(1L, null, null, ProjectChangedEvent.Type.IMAGES_CHANGED));
+        counter.onProjectChanged(event(2L, COMPLETED, "Pune", ProjectChangedEvent.Type.DELETED));
+
+        ProjectDTOs.FacetsDTO facets = counter.facets();
+        assertThat(facets.total()).isEqualTo(1);
+        assertThat(facets.projectStatus()).isEqualTo(Map.of(COMPLETED, 1L));
+        assertThat(facets.city()).isEqualTo(Map.of("Pune", 1L));
+    }
+
+    @Test
+    void anImportIsCountedFromTheEventAlone() {
+        counter.onProjectChanged(event(1L, UNDER_CONSTRUCTION, "Pune", ProjectChangedEvent.Type.CREATED));
+
+        counter.onProjectsImported(new ProjectsImportedEvent(List.of(
+                new ProjectsImportedEvent.Imported(2L, "p2", COMPLETED, "Pune"),
+                new ProjectsImportedEvent.Imported(3L, "p3", COMPLETED, "Mumbai"))));
+
+        ProjectDTOs.FacetsDTO facets = counter.facets();
+        assertThat(facets.total()).isEqualTo(3);
+        assertThat(facets.projectStatus()).isEqualTo(Map.of(UNDER_CONSTRUCTION, 1L, COMPLETED, 2L));
+        assertThat(facets.city()).containsExactly(Map.entry("Pune", 2L), Map.entry("Mumbai", 1L));
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    void reconcileReplacesDriftedCountersWithTheDatabase() {
+        counter.onProjectChanged(event(1L, COMPLETED, "Pune", ProjectChangedEvent.Type.CREATED));
+        counter.onProjectChanged(event(9L, COMPLETED, "Goa", ProjectChangedEvent.Type.CREATED));
+        when(projectRepository.findFacetRows()).thenReturn(List.of(
+                row(1L, UNDER_CONSTRUCTION, "Pune"),
+                row(2L, UNDER_CONSTRUCTION, "Mumbai")));
+
+        counter.reconcile();
+
+        ProjectDTOs.FacetsDTO facets = counter.facets();
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.projectStatus()).isEqualTo(Map.of(UNDER_CONSTRUCTION, 2L));
+        assertThat(facets.city()).isEqualTo(Map.of("Pune", 1L, "Mumbai", 1L));
+
+        // Events after the rebuild still apply against the reconciled state.
+        counter.onProjectChanged(event(2L, UNDER_CONSTRUCTION, "Mumbai", ProjectChangedEvent.Type.DELETED));
+        assertThat(counter.facets().total()).isEqualTo(1);
+        assertThat(counter.facets().city()).isEqualTo(Map.of("Pune", 1L));
+    }
+
+    @Test
+    void firstReconcileIsRetriedUntilTheDatabaseAnswers() {
+        when(projectRepository.findFacetRows())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(List.of(row(1L, COMPLETED, "Pune")));
+
+        counter.reconcileWithRetry();
+
+        verify(projectRepository, times(3)).findFacetRows();
+        assertThat(counter.facets().total()).isEqualTo(1);
+    }
+
+    private static ProjectChangedEvent event(Long id, ProjectStatus status, String city, ProjectChangedEvent.Type type) {
+        return new ProjectChangedEvent(id, "p" + id, status, city, type);
+    }
+
+    private static ProjectRepository.FacetRow row(Long id, ProjectStatus status, String city) {
+        return new ProjectRepository.FacetRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public ProjectStatus getProjectStatus() {
+                return status;
+            }
+
+            @Override
+            public String getCity() {
+                return city;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.backend.jvconstructions.search;
+
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.event.ProjectChangedEvent;
+import com.backend.jvconstructions.event.ProjectsImportedEvent;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectSearchIndexTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectSearchIndex searchIndex =
+            new ProjectSearchIndex(projectRepository, mock(PlatformTransactionManager.class), 1, 10);
+
+    @Test
+    void buildIsRetriedUntilTheDatabaseAnswers() {
+        when(projectRepository.findAll())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(List.of(project(1L, "Lake View Villas")));
+
+        searchIndex.buildWithRetry();
+
+        verify(projectRepository, times(3)).findAll();
+        assertThat(searchIndex.search("lake")).containsExactly(1L);
+    }
+
+    @Test
+    void changesDuringTheBuildSurviveTheSwap() {
+        rows(project(1L, "Skyline Towers"), project(3L, "Green Meadows"));
+        when(projectRepository.findAll()).thenAnswer(invocation -> {
+            // Committed while the bulk read runs; the read still returns the old rows.
+            searchIndex.onProjectChanged(event(1L, ProjectChangedEvent.Type.UPDATED));
+            searchIndex.onProjectChanged(event(2L, ProjectChangedEvent.Type.DELETED));
+            searchIndex.onProjectChanged(event(3L, ProjectChangedEvent.Type.CREATED));
+            assertThat(searchIndex.search("towers")).containsExactly(1L);
+            return List.of(project(1L, "Lake View Villas"), project(2L, "Garden Court"));
+        });
+
+        searchIndex.buildWithRetry();
+
+        assertThat(searchIndex.search("lake")).isEmpty();
+        assertThat(searchIndex.search("towers")).containsExactly(1L);
+        assertThat(searchIndex.search("garden")).isEmpty();
+        assertThat(searchIndex.search("meadows")).containsExactly(3L);
+    }
+
+    @Test
+    void anImportIsIndexedAfterOneRead() {
+        rows(project(1L, "Lake View Villas"), project(2L, "Skyline Towers"));
+
+        searchIndex.onProjectsImported(new ProjectsImportedEvent(List.of(
+                new ProjectsImportedEvent.Imported(1L, "p1", null, "Pune"),
+                new ProjectsImportedEvent.Imported(2L, "p2", null, "Pune"))));
+
+        verify(projectRepository).findAllById(List.of(1L, 2L));
+        verify(projectRepository, never()).findById(any());
+        assertThat(searchIndex.search("pune")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(searchIndex.search("towers")).containsExactly(2L);
+    }
+
+    /** Rows the per-change reads see; ids not listed have been deleted. */
+    private void rows(Project... projects) {
+        Map<Long, Project> byId = new HashMap<>();
+        for (Project p : projects) byId.put(p.getId(), p);
+        when(projectRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Project> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (byId.containsKey(id)) found.add(byId.get(id));
+            }
+            return found;
+        });
+    }
+
+    private static Project project(Long id, String name) {
+        return Project.builder().id(id).code("p" + id).name(name).city("Pune").build();
+    }
+
+    private static ProjectChangedEvent event(Long id, ProjectChangedEvent.Type type) {
+        return new ProjectChangedEvent(id, "p" + id, null, "Pune", type);
+    }
+}
@@ -0,0 +1,184 @@
+package com.backend.jvconstructions.service.impl;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectCodeCache;
+import com.backend.jvconstructions.dto.CursorPage;
+import com.backend.jvconstructions.dto.EnquiryDTOs;
+import com.backend.jvconstructions.enquiry.EnquiryDeduplicator;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.exception.NotFoundException;
+import com.backend.jvconstructions.repository.EnquiryRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnquiryInboxTest extends MySqlTest {
+
+    private static final Instant T = Instant.parse("2024-01-15T10:00:00Z");
+
+    /** Inserted in this order, so ids ascend; e3/e4 and e7/e8 share a timestamp. */
+    private static final List<Fixture> FIXTURES = List.of(
+            new Fixture("e1", "NEW", "alice", true, 0),
+            new Fixture("e2", "NEW", "bob", false, 1),
+            new Fixture("e3", "CONTACTED", "alice", true, 2),
+            new Fixture("e4", "NEW", "alice", false, 2),
+            new Fixture("e5", "NEW", "alice", true, 3),
+            new Fixture("e6", "CONTACTED", "bob", true, 4),
+            new Fixture("e7", "NEW", null, false, 5),
+            new Fixture("e8", "NEW", "alice", true, 5));
+
+    @Autowired
+    EnquiryRepository enquiryRepository;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    EnquiryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        Project project = projectRepository.saveAndFlush(Project.builder()
+                .code("villa").name("Villa").projectStatus(ProjectStatus.UNDER_CONSTRUCTION).city("Pune").build());
+        for (Fixture f : FIXTURES) {
+            Timestamp createdAt = Timestamp.from(T.plus(Duration.ofMinutes(f.minute())));
+            jdbcTemplate.update("insert into enquiries (tracking_id, project_id, name, email, phone, message, status, "
+                            + "assigned_to, created_at, updated_at) values (?, ?, 'Asha', 'asha@example.com', "
+                            + "'+91 98765 43210', 'Hello', ?, ?, ?, ?)",
+                    f.trackingId(), f.inProject() ? project.getId() : null, f.status(), f.assignedTo(), createdAt, createdAt);
+        }
+        service = new EnquiryServiceImpl(enquiryRepository, projectRepository,
+                new ProjectCodeCache(projectRepository, 100, 600),
+                new EnquiryDeduplicator(new SimpleMeterRegistry(), false, 600, 10, 1000));
+    }
+
+    @Test
+    void pagesForwardAndBackBetweenTheSamePages() {
+        EnquiryDTOs.InboxFilter all = filter(null, null, null, null, null);
+
+        CursorPage<EnquiryDTOs.EnquiryDTO> first = service.inbox(all, null, 3);
+        assertThat(ids(first)).containsExactly("e8", "e7", "e6");
+        assertThat(first.prevCursor()).isNull();
+        assertThat(first.nextCursor()).isNotNull();
+
+        CursorPage<EnquiryDTOs.EnquiryDTO> second = service.inbox(all, first.nextCursor(), 3);
+        assertThat(ids(second)).containsExactly("e5", "e4", "e3");
+        assertThat(second.prevCursor()).isNotNull();
+        assertThat(second.nextCursor()).isNotNull();
+
+        CursorPage<EnquiryDTOs.EnquiryDTO> last = service.inbox(all, second.nextCursor(), 3);
+        assertThat(ids(last)).containsExactly("e2", "e1");
+        assertThat(last.nextCursor()).isNull();
+        assertThat(last.prevCursor()).isNotNull();
+
+        CursorPage<EnquiryDTOs.EnquiryDTO> backToSecond = service.inbox(all, last.prevCursor(), 3);
+        assertThat(ids(backToSecond)).containsExactly("e5", "e4", "e3");
+        assertThat(backToSecond.nextCursor()).isNotNull();
+        assertThat(backToSecond.prevCursor()).isNotNull();
+
+        CursorPage<EnquiryDTOs.EnquiryDTO> backToFirst = service.inbox(all, backToSecond.prevCursor(), 3);
+        assertThat(ids(backToFirst)).containsExactly("e8", "e7", "e6");
+        assertThat(backToFirst.prevCursor()).isNull();
+        assertThat(backToFirst.nextCursor()).isEqualTo(first.nextCursor());
+    }
+
+    @Test
+    void exactlyOneFullPageHasNoNextCursor() {
+        CursorPage<EnquiryDTOs.EnquiryDTO> page = service.inbox(filter(null, null, null, null, null), null, FIXTURES.size());
+
+        assertThat(page.items()).hasSize(FIXTURES.size());
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.prevCursor()).isNull();
+    }
+
+    @Test
+    void everyFilterCombinationMatchesAScanOfTheFixtures() {
+        assertWalk(filter(null, null, null, null, null), f -> true);
+        assertWalk(filter("NEW", null, null, null, null), f -> f.status().equals("NEW"));
+        assertWalk(filter(null, "alice", null, null, null), f -> "alice".equals(f.assignedTo()));
+        assertWalk(filter(null, null, "villa", null, null), Fixture::inProject);
+        assertWalk(filter("NEW", "alice", null, null, null), f -> f.status().equals("NEW") && "alice".equals(f.assignedTo()));
+        assertWalk(filter("NEW", "alice", "villa", null, null),
+                f -> f.status().equals("NEW") && "alice".equals(f.assignedTo()) && f.inProject());
+        assertWalk(filter(null, null, null, T.plus(Duration.ofMinutes(2)), T.plus(Duration.ofMinutes(5))),
+                f -> f.minute() >= 2 && f.minute() < 5);
+        assertWalk(filter("  NEW ", "", "villa", T.plus(Duration.ofMinutes(1)), null),
+                f -> f.status().equals("NEW") && f.inProject() && f.minute() >= 1);
+    }
+
+    @Test
+    void unknownProjectGivesAnEmptyPage() {
+        CursorPage<EnquiryDTOs.EnquiryDTO> page = service.inbox(filter(null, null, "nope", null, null), null, 10);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.prevCursor()).isNull();
+    }
+
+    /** Walks forward two at a time, then back to the start, against the expected order. */
+    private void assertWalk(EnquiryDTOs.InboxFilter filter, Predicate<Fixture> matches) {
+        List<String> expected = FIXTURES.stream().filter(matches)
+                .sorted(Comparator.comparingInt(Fixture::minute).thenComparing(Fixture::trackingId).reversed())
+                .map(Fixture::trackingId)
+                .toList();
+
+        List<String> forward = new ArrayList<>();
+        List<CursorPage<EnquiryDTOs.EnquiryDTO>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<EnquiryDTOs.EnquiryDTO> page = service.inbox(filter, cursor, 2);
+            pages.add(page);
+            forward.addAll(ids(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(forward).as("forward walk").isEqualTo(expected);
+
+        for (int i = pages.size() - 1; i > 0; i--) {
+            CursorPage<EnquiryDTOs.EnquiryDTO> back = service.inbox(filter, pages.get(i).prevCursor(), 2);
+            assertThat(ids(back)).as("page %d walking back", i - 1).isEqualTo(ids(pages.get(i - 1)));
+            assertThat(back.prevCursor() == null).isEqualTo(i == 1);
+        }
+    }
+
+    @Test
+    void enquiryForAProjectDeletedBehindTheCodeCacheIsNotFound() {
+        Project gone = projectRepository.saveAndFlush(Project.builder()
+                .code("gone").name("Gone").projectStatus(ProjectStatus.COMPLETED).city("Pune").build());
+        assertThat(service.inbox(filter(null, null, "GONE", null, null), null, 10).items()).isEmpty();
+        // Deleted without an event reaching this cache, as on another instance.
+        projectRepository.deleteById(gone.getId());
+        projectRepository.flush();
+
+        assertThatThrownBy(() -> service.create(new EnquiryDTOs.CreateEnquiryRequest("gone", "Asha",
+                "asha@example.com", "+91 98765 43210", "Hello"), "127.0.0.1", "test"))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Project with code gone not found");
+    }
+
+    private static EnquiryDTOs.InboxFilter filter(String status, String assignedTo, String projectCode, Instant from, Instant to) {
+        return new EnquiryDTOs.InboxFilter(status, assignedTo, projectCode, from, to);
+    }
+
+    private static List<String> ids(CursorPage<EnquiryDTOs.EnquiryDTO> page) {
+        return page.items().stream().map(EnquiryDTOs.EnquiryDTO::trackingId).toList();
+    }
+
+    private record Fixture(String trackingId, String status, String assignedTo, boolean inProject, int minute) {}
+}
@@ -0,0 +1,194 @@
+package com.backend.jvconstructions.service.impl;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectReadModel;
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.backend.jvconstructions.media.BlobStore;
+import com.backend.jvconstructions.media.MediaOutbox;
+import com.backend.jvconstructions.media.ParallelUploader;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.search.ProjectSearchIndex;
+import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.MediaStorage;
+import com.backend.jvconstructions.util.SparseFields;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProjectServiceImpl.class)
+class ProjectCardListingTest extends MySqlTest {
+
+    @MockitoBean
+    MediaStorage mediaStorage;
+
+    // Left cold (null snapshot) so listing goes to the database.
+    @MockitoBean
+    ProjectReadModel projectReadModel;
+
+    @MockitoBean
+    ProjectSearchIndex projectSearchIndex;
+
+    @MockitoBean
+    ParallelUploader parallelUploader;
+
+    @MockitoBean
+    MediaOutbox mediaOutbox;
+
+    @MockitoBean
+    BlobStore blobStore;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    private final Map<String, String> expectedHeroKeys = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        when(mediaStorage.toCdnUrl(anyString())).thenAnswer(inv -> "https://cdn/" + inv.getArgument(0));
+        for (int i = 0; i < 60; i++) {
+            Project p = em.persist(Project.builder()
+                    .code("project-" + i)
+                    .name("Project " + i)
+                    .description("x".repeat(10_000))
+                    .projectStatus(ProjectStatus.COMPLETED)
+                    .city("Pune")
+                    .build());
+            ProjectImage first = em.persist(image(p, "projects/project-" + i + "/images/first.jpg", 0));
+            ProjectImage second = em.persist(image(p, "projects/project-" + i + "/images/second.jpg", 1));
+            if (i % 2 == 0) {
+                p.setHeroImageId(second.getId());
+                expectedHeroKeys.put(p.getCode(), second.getS3Key());
+            } else {
+                expectedHeroKeys.put(p.getCode(), first.getS3Key());
+            }
+        }
+        em.flush();
+        em.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void listsAPageOfCardsInAFixedNumberOfStatements() {
+        Page<ProjectDTOs.ProjectCardDTO> page = projectService.list(null, null, PageRequest.of(0, 50));
+
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        // page query + count query + first-image fallback for cards without a hero
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page.getContent()).allSatisfy(card ->
+                assertThat(card.heroImageUrl()).isEqualTo("https://cdn/" + expectedHeroKeys.get(card.code())));
+    }
+
+    @Test
+    void batchLookupsMatchCodesIgnoringCase() {
+        ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectCardDTO> cards =
+                projectService.getCardsByCodes(List.of("PROJECT-1", "project-1", "Project-2", "nope"));
+
+        assertThat(cards.projects()).extracting(ProjectDTOs.ProjectCardDTO::code).containsExactly("project-1", "project-2");
+        assertThat(cards.missingCodes()).containsExactly("nope");
+
+        ProjectDTOs.ProjectBatchResponse<ProjectDTOs.ProjectDetailDTO> details = projectService.getDetailsByCodes(
+                List.of("PROJECT-3", "project-3"), SparseFields.parse("code,name", ProjectDTOs.ProjectDetailDTO.class));
+
+        assertThat(details.projects()).extracting(ProjectDTOs.ProjectDetailDTO::code).containsExactly("project-3");
+        assertThat(details.missingCodes()).isEmpty();
+    }
+
+    @Test
+    void sparseDetailsReadTheDescriptionAndImagesOnlyWhenSelected() {
+        ProjectDTOs.ProjectDetailDTO plain = sparseDetail("code,name");
+        // Detail columns only; no entity is loaded, so neither the LOB nor the images are read.
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics().getEntityLoadCount()).isZero();
+        assertThat(plain.description()).isNull();
+        assertThat(plain.images()).isEmpty();
+
+        statistics().clear();
+        ProjectDTOs.ProjectDetailDTO described = sparseDetail("code,description");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics().getEntityLoadCount()).isZero();
+        assertThat(described.description()).hasSize(10_000);
+        assertThat(described.images()).isEmpty();
+
+        statistics().clear();
+        ProjectDTOs.ProjectDetailDTO illustrated = sparseDetail("code,images");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+        assertThat(illustrated.description()).isNull();
+        assertThat(illustrated.images()).hasSize(2);
+    }
+
+    @Test
+    void importRejectsCodesDifferingOnlyInCase() {
+        ProjectDTOs.ProjectImportRequest req = new ProjectDTOs.ProjectImportRequest(
+                List.of(createRequest("import-a"), createRequest("IMPORT-A")));
+
+        assertThatThrownBy(() -> projectService.importProjects(req, "admin"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("IMPORT-A");
+        assertThat(projectRepository.findByCodeIn(List.of("import-a"))).isEmpty();
+    }
+
+    @Test
+    void importRejectsCodesTakenInAnotherCase() {
+        ProjectDTOs.ProjectImportRequest req = new ProjectDTOs.ProjectImportRequest(
+                List.of(createRequest("import-b"), createRequest("PROJECT-7")));
+
+        assertThatThrownBy(() -> projectService.importProjects(req, "admin"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("project-7");
+    }
+
+    private ProjectDTOs.ProjectDetailDTO sparseDetail(String fields) {
+        return projectService.getByCode("project-4", SparseFields.parse(fields, ProjectDTOs.ProjectDetailDTO.class));
+    }
+
+    private static ProjectDTOs.CreateProjectRequest createRequest(String code) {
+        return new ProjectDTOs.CreateProjectRequest(code, "Project " + code, null, ProjectStatus.UNDER_CONSTRUCTION,
+                "Pune", null, null, null, null, null, null);
+    }
+
+    private ProjectImage image(Project p, String key, int sortOrder) {
+        return ProjectImage.builder()
+                .project(p)
+                .s3Key(key)
+                .mimeType("image/jpeg")
+                .sortOrder(sortOrder)
+                .build();
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,157 @@
+package com.backend.jvconstructions.service.impl;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectReadModel;
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.entity.ProjectImage;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.backend.jvconstructions.media.BlobStore;
+import com.backend.jvconstructions.media.MediaOutbox;
+import com.backend.jvconstructions.media.ParallelUploader;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.search.ProjectSearchIndex;
+import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.MediaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@Import(ProjectServiceImpl.class)
+class ProjectImageConfirmTest extends MySqlTest {
+
+    @MockitoBean
+    MediaStorage mediaStorage;
+
+    @MockitoBean
+    ProjectReadModel projectReadModel;
+
+    @MockitoBean
+    ProjectSearchIndex projectSearchIndex;
+
+    @MockitoBean
+    ParallelUploader parallelUploader;
+
+    @MockitoBean
+    MediaOutbox mediaOutbox;
+
+    @MockitoBean
+    BlobStore blobStore;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectImageRepository projectImageRepository;
+
+    @Autowired
+    TestEntityManager em;
+
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        when(mediaStorage.toCdnUrl(anyString())).thenAnswer(inv -> "https://cdn/" + inv.getArgument(0));
+        when(mediaStorage.exists(anyString())).thenReturn(true);
+        project = em.persistAndFlush(project("lake"));
+        em.persistAndFlush(project("lake-view"));
+    }
+
+    @Test
+    void confirmsEveryImageAndSetsTheHero() {
+        ProjectDTOs.ConfirmImagesRequest req = new ProjectDTOs.ConfirmImagesRequest(List.of(
+                confirm("projects/lake/images/a.jpg", false, 0),
+                confirm("projects/lake/images/b.jpg", true, 1)));
+
+        List<ProjectDTOs.ImageDTO> images = projectService.confirmImages(project.getId(), req, "admin");
+
+        assertThat(images).extracting(ProjectDTOs.ImageDTO::url)
+                .containsExactly("https://cdn/projects/lake/images/a.jpg", "https://cdn/projects/lake/images/b.jpg");
+        assertThat(images).extracting(ProjectDTOs.ImageDTO::hero).containsExactly(false, true);
+        assertThat(em.find(Project.class, project.getId()).getHeroImageId()).isEqualTo(images.get(1).id());
+        assertThat(projectImageRepository.findByProjectIdOrderBySortOrderAscIdAsc(project.getId())).hasSize(2);
+    }
+
+    @Test
+    void rejectsKeysOfAProjectWhoseCodeExtendsThisOne() {
+        assertRejected("does not belong to this project",
+                confirm("projects/lake/images/a.jpg", false, 0),
+                confirm("projects/lake-view/images/b.jpg", false, 1));
+    }
+
+    @Test
+    void rejectsRepeatedKeys() {
+        assertRejected("listed more than once",
+                confirm("projects/lake/images/a.jpg", false, 0),
+                confirm("projects/lake/images/a.jpg", false, 1));
+    }
+
+    @Test
+    void rejectsMoreThanOneHero() {
+        assertRejected("At most one image can be the hero.",
+                confirm("projects/lake/images/a.jpg", true, 0),
+                confirm("projects/lake/images/b.jpg", true, 1));
+    }
+
+    @Test
+    void rejectsKeysAlreadyConfirmed() {
+        em.persistAndFlush(ProjectImage.builder()
+                .project(project)
+                .s3Key("projects/lake/images/b.jpg")
+                .mimeType("image/jpeg")
+                .sortOrder(0)
+                .build());
+
+        assertRejected("s3Key projects/lake/images/b.jpg is already confirmed",
+                confirm("projects/lake/images/a.jpg", false, 0),
+                confirm("projects/lake/images/b.jpg", false, 1));
+    }
+
+    @Test
+    void rejectsKeysThatWereNeverUploaded() {
+        when(mediaStorage.exists("projects/lake/images/b.jpg")).thenReturn(false);
+
+        assertRejected("s3Key projects/lake/images/b.jpg has not been uploaded",
+                confirm("projects/lake/images/a.jpg", false, 0),
+                confirm("projects/lake/images/b.jpg", false, 1));
+        assertThatThrownBy(() -> projectService.confirmImage(project.getId(),
+                confirm("projects/lake/images/b.jpg", false, 0), "admin"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("s3Key projects/lake/images/b.jpg has not been uploaded");
+    }
+
+    /** Nothing is written when any image in the batch is rejected. */
+    private void assertRejected(String message, ProjectDTOs.ConfirmImageReq... images) {
+        long before = projectImageRepository.count();
+
+        assertThatThrownBy(() -> projectService.confirmImages(project.getId(),
+                new ProjectDTOs.ConfirmImagesRequest(List.of(images)), "admin"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(message);
+        assertThat(projectImageRepository.count()).isEqualTo(before);
+    }
+
+    private static ProjectDTOs.ConfirmImageReq confirm(String s3Key, boolean hero, int sortOrder) {
+        return new ProjectDTOs.ConfirmImageReq(s3Key, "image/jpeg", 800, 600, 1024, hero, sortOrder);
+    }
+
+    private static Project project(String code) {
+        return Project.builder()
+                .code(code)
+                .name("Project " + code)
+                .projectStatus(ProjectStatus.UNDER_CONSTRUCTION)
+                .city("Pune")
+                .build();
+    }
+}
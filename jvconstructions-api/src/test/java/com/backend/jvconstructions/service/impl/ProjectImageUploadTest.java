@@ -0,0 +1,133 @@
+package com.backend.jvconstructions.service.impl;
+
+import com.backend.jvconstructions.MySqlTest;
+import com.backend.jvconstructions.cache.ProjectReadModel;
+import com.backend.jvconstructions.entity.MediaBlob;
+import com.backend.jvconstructions.entity.MediaOutboxEntry;
+import com.backend.jvconstructions.entity.Project;
+import com.backend.jvconstructions.enums.MediaOperation;
+import com.backend.jvconstructions.enums.ProjectStatus;
+import com.backend.jvconstructions.exception.NotFoundException;
+import com.backend.jvconstructions.media.BlobStore;
+import com.backend.jvconstructions.media.ImageVariant;
+import com.backend.jvconstructions.media.MediaOutbox;
+import com.backend.jvconstructions.media.MediaOutboxDispatcher;
+import com.backend.jvconstructions.media.ParallelUploader;
+import com.backend.jvconstructions.repository.MediaBlobRepository;
+import com.backend.jvconstructions.repository.MediaOutboxRepository;
+import com.backend.jvconstructions.repository.ProjectImageRepository;
+import com.backend.jvconstructions.repository.ProjectRepository;
+import com.backend.jvconstructions.search.ProjectSearchIndex;
+import com.backend.jvconstructions.service.ProjectService;
+import com.backend.jvconstructions.util.MediaStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/** Batch uploads against MySQL with the real blob bookkeeping, each step in its own transaction. */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProjectServiceImpl.class, BlobStore.class, MediaOutbox.class})
+class ProjectImageUploadTest extends MySqlTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1};
+    private static final byte[] OTHER_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 2};
+
+    @MockitoBean
+    MediaStorage mediaStorage;
+
+    @MockitoBean
+    ProjectReadModel projectReadModel;
+
+    @MockitoBean
+    ProjectSearchIndex projectSearchIndex;
+
+    @MockitoBean
+    ParallelUploader parallelUploader;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ProjectImageRepository projectImageRepository;
+
+    @Autowired
+    MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    MediaOutboxRepository mediaOutboxRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        mediaOutboxRepository.deleteAllInBatch();
+        mediaBlobRepository.deleteAllInBatch();
+        projectImageRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        project = projectRepository.save(Project.builder()
+                .code("lake")
+                .name("Lake View")
+                .projectStatus(ProjectStatus.UNDER_CONSTRUCTION)
+                .city("Pune")
+                .build());
+    }
+
+    @Test
+    void objectsOfABatchWhoseTransactionFailsAreDeleted() throws Exception {
+        MultipartFile[] files = {png("a.png", PNG), png("b.png", OTHER_PNG)};
+        String first = BlobStore.contentKey(files[0]);
+        String second = BlobStore.contentKey(files[1]);
+        // The bytes reach storage, then the project goes before the images are recorded.
+        doAnswer(invocation -> {
+            projectRepository.deleteById(project.getId());
+            return null;
+        }).when(parallelUploader).uploadAll(anyList());
+
+        assertThatThrownBy(() -> projectService.uploadMultipleImages(project.getId(), files, false, "admin"))
+                .isInstanceOf(NotFoundException.class);
+
+        assertThat(mediaBlobRepository.findAll())
+                .extracting(MediaBlob::getS3Key, MediaBlob::getRefCount)
+                .containsExactlyInAnyOrder(tuple(first, 0), tuple(second, 0));
+        assertThat(mediaOutboxRepository.findAll())
+                .extracting(MediaOutboxEntry::getOperation, MediaOutboxEntry::getPayload)
+                .containsExactly(tuple(MediaOperation.DELETE_BLOBS,
+                        String.join("\n", Stream.of(first, second).sorted().toList())));
+
+        new MediaOutboxDispatcher(mediaOutboxRepository, mediaBlobRepository, mediaStorage,
+                transactionManager, new SimpleMeterRegistry(), 1000, 600000).dispatch();
+
+        verify(mediaStorage).deleteObjects(argThat(keys ->
+                keys.containsAll(ImageVariant.allKeys(first)) && keys.containsAll(ImageVariant.allKeys(second))));
+        assertThat(mediaBlobRepository.count()).isZero();
+        assertThat(mediaOutboxRepository.count()).isZero();
+    }
+
+    private static MockMultipartFile png(String name, byte[] bytes) {
+        return new MockMultipartFile("files", name, "image/png", bytes);
+    }
+}
@@ -0,0 +1,24 @@
+package com.backend.jvconstructions.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAddedKeysAndStaysNearItsFalsePositiveRate() {
+        int n = 50_000;
+        BloomFilter filter = BloomFilter.create(n, 0.01);
+        for (int i = 0; i < n; i++) filter.add("projects/p" + (i % 100) + "/images/" + i + ".jpg");
+
+        for (int i = 0; i < n; i++) {
+            assertThat(filter.mightContain("projects/p" + (i % 100) + "/images/" + i + ".jpg")).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = n; i < 2 * n; i++) {
+            if (filter.mightContain("projects/p" + (i % 100) + "/images/" + i + ".jpg")) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(n / 50);
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.jvconstructions.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CloudFrontUrlSignerTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    void signsCannedPolicyVerifiableWithPublicKey() throws Exception {
+        MutableClock clock = new MutableClock(Instant.parse("2024-05-01T10:15:00Z"));
+        CloudFrontUrlSigner signer = signer(clock);
+
+        String url = signer.sign("projects/villa/images/a b.jpg");
+
+        String resource = "https://cdn.example.net/projects/villa/images/a%20b.jpg";
+        assertThat(url).startsWith(resource + "?Expires=");
+        long expires = Long.parseLong(param(url, "Expires"));
+        // Window 10:00-11:00, so the URL is valid until 12:00.
+        assertThat(Instant.ofEpochSecond(expires)).isEqualTo(Instant.parse("2024-05-01T12:00:00Z"));
+        assertThat(param(url, "Key-Pair-Id")).isEqualTo("KTEST");
+
+        String policy = "{\"Statement\":[{\"Resource\":\"" + resource
+                + "\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":" + expires + "}}}]}";
+        byte[] signature = Base64.getDecoder().decode(param(url, "Signature")
+                .replace('-', '+').replace('_', '=').replace('~', '/'));
+        Signature rsa = Signature.getInstance("SHA1withRSA");
+        rsa.initVerify(keyPair.getPublic());
+        rsa.update(policy.getBytes(StandardCharsets.UTF_8));
+        assertThat(rsa.verify(signature)).isTrue();
+    }
+
+    @Test
+    void reusesSignatureWithinWindowAndResignsAfter() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-05-01T10:15:00Z"));
+        CloudFrontUrlSigner signer = signer(clock);
+
+        String first = signer.sign("projects/villa/hero.jpg");
+        clock.now = Instant.parse("2024-05-01T10:59:59Z");
+        assertThat(signer.sign("projects/villa/hero.jpg")).isSameAs(first);
+        long epoch = signer.epoch();
+
+        clock.now = Instant.parse("2024-05-01T11:00:00Z");
+        String next = signer.sign("projects/villa/hero.jpg");
+        assertThat(next).isNotEqualTo(first);
+        assertThat(signer.epoch()).isEqualTo(epoch + 1);
+        assertThat(Instant.ofEpochSecond(Long.parseLong(param(next, "Expires"))))
+                .isEqualTo(Instant.parse("2024-05-01T13:00:00Z"));
+    }
+
+    private static CloudFrontUrlSigner signer(Clock clock) {
+        return new CloudFrontUrlSigner("cdn.example.net", "KTEST", keyPair.getPrivate(),
+                Duration.ofHours(1), 1000, clock);
+    }
+
+    private static String param(String url, String name) {
+        for (String pair : url.substring(url.indexOf('?') + 1).split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+        }
+        throw new AssertionError("Missing " + name + " in " + url);
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.jvconstructions.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DuplicateWindowTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void returnsFirstResultUntilItsGenerationAgesOut() {
+        DuplicateWindow<String, Integer> window = new DuplicateWindow<>(Duration.ofSeconds(60), 6, 1000, clock);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(window.get("a", runs::incrementAndGet)).isEqualTo(new DuplicateWindow.Result<>(1, false));
+        clock.advance(Duration.ofSeconds(45));
+        assertThat(window.get("a", runs::incrementAndGet)).isEqualTo(new DuplicateWindow.Result<>(1, true));
+        clock.advance(Duration.ofSeconds(16));
+        assertThat(window.get("a", runs::incrementAndGet)).isEqualTo(new DuplicateWindow.Result<>(2, false));
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void forgetsFailedActionsAndStopsRememberingWhenFull() {
+        DuplicateWindow<String, String> window = new DuplicateWindow<>(Duration.ofSeconds(10), 1, 2, clock);
+
+        assertThatThrownBy(() -> window.get("a", () -> { throw new IllegalStateException("db down"); }))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(window.get("a", () -> "stored").duplicate()).isFalse();
+
+        window.get("b", () -> "b");
+        window.get("c", () -> "c");
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.get("c", () -> "again").value()).isEqualTo("again");
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T10:15:30.123456Z");
+
+    @Test
+    void roundTripsBothDirections() {
+        assertThat(KeysetCursor.decode(KeysetCursor.after(CREATED_AT, 42L).encode()))
+                .isEqualTo(new KeysetCursor(CREATED_AT, 42L, false));
+        assertThat(KeysetCursor.decode(KeysetCursor.before(CREATED_AT, 42L).encode()))
+                .isEqualTo(new KeysetCursor(CREATED_AT, 42L, true));
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String cursor = KeysetCursor.after(CREATED_AT, Long.MAX_VALUE).encode();
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "x|2024-03-01T10:15:30Z|1",
+            "f|2024-03-01T10:15:30Z",
+            "f|2024-03-01T10:15:30Z|1|2",
+            "f|yesterday|1",
+            "f|2024-03-01T10:15:30Z|one",
+            "f|2024-03-01T10:15:30Z|99999999999999999999",
+            "f||1"
+    })
+    void rejectsTamperedContent(String raw) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "Zg=a", "%%%"})
+    void rejectsCursorsThatAreNotBase64(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor.");
+    }
+}
@@ -0,0 +1,85 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.dto.ProjectDTOs;
+import com.backend.jvconstructions.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalFsMediaStorageTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesOpensAndDeletesObjects() throws Exception {
+        LocalFsMediaStorage storage = storage(Clock.fixed(NOW, ZoneOffset.UTC));
+        byte[] data = "hello".getBytes();
+
+        storage.uploadObject("projects/p1/images/a.jpg", new ByteArrayInputStream(data), data.length, "image/jpeg");
+        try (InputStream in = storage.openObject("projects/p1/images/a.jpg")) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+        assertThat(storage.toCdnUrl("projects/p1/images/a.jpg")).isEqualTo("http://media.test/media/projects/p1/images/a.jpg");
+
+        assertThat(storage.deleteObjects(List.of("projects/p1/images/a.jpg", "projects/p1/images/missing.jpg"))).isEmpty();
+        assertThat(Files.exists(root.resolve("projects/p1/images/a.jpg"))).isFalse();
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() {
+        LocalFsMediaStorage storage = storage(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThatThrownBy(() -> storage.resolve("../etc/passwd")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> storage.resolve("/etc/passwd")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> storage.resolve("projects/../..")).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void uploadUrlsAreBoundToKeyTypeSizeAndExpiry() {
+        LocalFsMediaStorage signer = storage(Clock.fixed(NOW, ZoneOffset.UTC));
+        ProjectDTOs.PresignedUrlResponse presigned = signer.createPresignedPut("projects/p1/images/a.jpg", "image/jpeg", 1234);
+        Map<String, String> query = query(presigned.uploadUrl());
+        long expires = Long.parseLong(query.get("expires"));
+        String sig = query.get("sig");
+
+        assertThat(URI.create(presigned.uploadUrl()).getPath()).isEqualTo("/media-uploads/projects/p1/images/a.jpg");
+        assertThat(signer.verifyUpload("projects/p1/images/a.jpg", "image/jpeg", 1234, expires, sig)).isTrue();
+        assertThat(signer.verifyUpload("projects/p1/images/b.jpg", "image/jpeg", 1234, expires, sig)).isFalse();
+        assertThat(signer.verifyUpload("projects/p1/images/a.jpg", "image/png", 1234, expires, sig)).isFalse();
+        assertThat(signer.verifyUpload("projects/p1/images/a.jpg", "image/jpeg", 9999, expires, sig)).isFalse();
+        assertThat(signer.verifyUpload("projects/p1/images/a.jpg", "image/jpeg", 1234, expires + 60, sig)).isFalse();
+
+        LocalFsMediaStorage later = storage(Clock.fixed(NOW.plusSeconds(301), ZoneOffset.UTC));
+        assertThat(later.verifyUpload("projects/p1/images/a.jpg", "image/jpeg", 1234, expires, sig)).isFalse();
+    }
+
+    private LocalFsMediaStorage storage(Clock clock) {
+        return new LocalFsMediaStorage(root, "http://media.test/", "secret", 300, clock);
+    }
+
+    private static Map<String, String> query(String url) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : URI.create(url).getRawQuery().split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,27 @@
+package com.backend.jvconstructions.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartBufferPoolTest {
+
+    @Test
+    void reusesReleasedBuffersAndNeverAllocatesBeyondMax() {
+        PartBufferPool pool = new PartBufferPool(1024, 2, 10);
+
+        byte[] first = pool.acquire();
+        byte[] second = pool.acquire();
+        assertThat(pool.inUse()).isEqualTo(2);
+        assertThat(pool.allocatedBytes()).isEqualTo(2048);
+        assertThatThrownBy(pool::acquire).isInstanceOf(IllegalStateException.class);
+
+        pool.release(first);
+        assertThat(pool.acquire()).isSameAs(first);
+        pool.release(second);
+        pool.release(first);
+        assertThat(pool.inUse()).isZero();
+        assertThat(pool.allocatedBytes()).isEqualTo(2048);
+    }
+}
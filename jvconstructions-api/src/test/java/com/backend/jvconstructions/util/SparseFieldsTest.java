@@ -0,0 +1,59 @@
+package com.backend.jvconstructions.util;
+
+import com.backend.jvconstructions.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldsTest {
+
+    record Card(Long id, String code, String name, List<String> images) {}
+
+    private static final Card CARD = new Card(7L, "lake", "Lake View", List.of("a.jpg"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void absentOrBlankSelectsEverything() {
+        assertThat(SparseFields.parse(null, Card.class).isAll()).isTrue();
+        assertThat(SparseFields.parse(" ", Card.class).isAll()).isTrue();
+        assertThat(SparseFields.parse(" , ,", Card.class).isAll()).isTrue();
+        assertThat(SparseFields.all().apply(CARD, objectMapper)).isSameAs(CARD);
+    }
+
+    @Test
+    void parsesTrimmedNamesAndSkipsEmptyOnes() {
+        SparseFields fields = SparseFields.parse(" code, ,name ,code", Card.class);
+
+        assertThat(fields.isAll()).isFalse();
+        assertThat(fields.includes("code")).isTrue();
+        assertThat(fields.includes("name")).isTrue();
+        assertThat(fields.includes("images")).isFalse();
+    }
+
+    @Test
+    void appliesOnlyTheSelectedFields() {
+        Object sparse = SparseFields.parse("code,images", Card.class).apply(CARD, objectMapper);
+
+        JsonNode json = objectMapper.valueToTree(sparse);
+        assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder("code", "images");
+        assertThat(json.get("code").asText()).isEqualTo("lake");
+        assertThat(json.get("images").get(0).asText()).isEqualTo("a.jpg");
+        assertThat(SparseFields.parse("code", Card.class).apply(null, objectMapper)).isNull();
+    }
+
+    @Test
+    void rejectsFieldsTheRecordDoesNotHave() {
+        assertThatThrownBy(() -> SparseFields.parse("code,secret", Card.class))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Unknown field secret");
+        // Names are matched exactly, as they appear in the JSON.
+        assertThatThrownBy(() -> SparseFields.parse("Code", Card.class))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.jvconstructions.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedTokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(4, 1000, 3, 1);
+
+        for (int i = 0; i < 3; i++) assertThat(buckets.tryAcquire("10.0.0.1", 0)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", 0)).isEqualTo(SECOND);
+        assertThat(buckets.tryAcquire("10.0.0.2", 0)).isZero();
+
+        assertThat(buckets.tryAcquire("10.0.0.1", SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(buckets.tryAcquire("10.0.0.1", SECOND)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", SECOND)).isPositive();
+    }
+
+    @Test
+    void requestsCanCostSeveralTokensAndBeRefunded() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(4, 1000, 5, 1);
+
+        assertThat(buckets.tryAcquire("10.0.0.1", 3, 0)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", 3, 0)).isEqualTo(SECOND);
+
+        buckets.refund("10.0.0.1", 3);
+        assertThat(buckets.tryAcquire("10.0.0.1", 5, 0)).isZero();
+        // Refunds never fill a bucket past its capacity.
+        buckets.refund("10.0.0.1", 10);
+        assertThat(buckets.tryAcquire("10.0.0.1", 5, 0)).isZero();
+        assertThat(buckets.tryAcquire("10.0.0.1", 0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void evictsOnlyRefilledIdleBucketsAndCapsKeys() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, 2, 10, 1);
+        buckets.tryAcquire("a", 0);
+        buckets.tryAcquire("b", 5 * SECOND);
+
+        // "a" is idle for 10 s but has only just refilled; "b" has not.
+        assertThat(buckets.evictIdle(10 * SECOND, SECOND)).isEqualTo(1);
+        assertThat(buckets.size()).isEqualTo(1);
+
+        buckets.tryAcquire("c", 11 * SECOND);
+        buckets.tryAcquire("d", 12 * SECOND);
+        assertThat(buckets.size()).isEqualTo(2);
+    }
+}